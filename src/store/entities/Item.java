@@ -1,5 +1,6 @@
 package store.entities;
 
+import java.io.IOException;
 import java.io.Serializable;
 
 /**
@@ -19,6 +20,9 @@ public class Item implements Serializable {
 	private int quantity;
 	private double unitPrice;
 	private double itemPrice;
+	// version of the product's price the item was checked out at (0 if unknown,
+	// e.g. items saved before prices were versioned)
+	private int priceVersion;
 
 	/**
 	 * The constructor.
@@ -36,7 +40,33 @@ public class Item implements Serializable {
 		this.itemPrice = quantity * unitPrice;
 	}
 
-	// no setters necessary; all fields set just once - in the constructor
+	/**
+	 * The constructor recording the version of the price used.
+	 * 
+	 * @param name      - product name of the item checked out
+	 * @param productId - product ID of the item checked out
+	 * @param quantity  - quantity of the item checked out
+	 * @param price     - version of the product's price the item is checked out
+	 *                  at
+	 */
+	public Item(String name, String productId, int quantity, PriceVersion price) {
+		this(name, productId, quantity, price.getPrice());
+		this.priceVersion = price.getVersion();
+	}
+
+	// no setters necessary; all fields set just once - in the constructor (only
+	// the quantity grows when repeated scans of a product are merged)
+
+	/**
+	 * Merges another scan of the same product at the same price into this item.
+	 * Only a Transaction can do that.
+	 * 
+	 * @param quantity - quantity of the product scanned again
+	 */
+	void addQuantity(int quantity) {
+		this.quantity += quantity;
+		this.itemPrice = this.quantity * unitPrice;
+	}
 
 	public String getName() {
 		return name;
@@ -58,16 +88,19 @@ public class Item implements Serializable {
 		return itemPrice;
 	}
 
+	public int getPriceVersion() {
+		return priceVersion;
+	}
+
 	@Override
 	public String toString() {
-		String fittedName;
-		if (name.length() > 18) {
-			fittedName = name.substring(0, 18);
-		} else {
-			fittedName = name;
+		StringBuilder output = new StringBuilder(64);
+		try {
+			ReceiptRenderer.writeItem(output, this);
+		} catch (IOException exception) {
+			// a StringBuilder never throws
 		}
-		return String.format("%-18s", fittedName) + "  " + String.format("%3s", quantity) + "x  ("
-				+ String.format("$%6.2f", unitPrice) + "/unit):  " + String.format("$%8.2f", itemPrice);
+		return output.toString();
 	}
 
 }
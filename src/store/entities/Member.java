@@ -1,5 +1,7 @@
 package store.entities;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Calendar;
@@ -22,6 +24,11 @@ public class Member implements Serializable {
 	private double feePaid;
 	private String id;
 	private ArrayList<Transaction> transactions;
+	// lifetime aggregates, kept up to date as transactions are added (they also
+	// cover transactions moved to the archive)
+	private double lifetimeSpend;
+	private int visitCount;
+	private Calendar lastVisit;
 
 	/**
 	 * The constructor. At the time of creation of a member object a list of his/her
@@ -96,6 +103,87 @@ public class Member implements Serializable {
 	 */
 	public void addTransaction(Transaction transaction) {
 		transactions.add(transaction);
+		lifetimeSpend += transaction.getTotalPrice();
+		visitCount++;
+		if (lastVisit == null || transaction.getDate().after(lastVisit)) {
+			// a copy, so nothing done with the last visit can change the transaction
+			lastVisit = (Calendar) transaction.getDate().clone();
+		}
+	}
+
+	/**
+	 * Puts back transactions previously removed by removeTransactionsBefore (e.g.
+	 * when they couldn't be archived). The lifetime aggregates are not changed;
+	 * they already include these transactions.
+	 * 
+	 * @param old - the transactions being put back
+	 */
+	public void restoreTransactions(ArrayList<Transaction> old) {
+		ArrayList<Transaction> restored = new ArrayList<Transaction>(old);
+		restored.addAll(transactions);
+		transactions = restored;
+	}
+
+	public double getLifetimeSpend() {
+		return lifetimeSpend;
+	}
+
+	public int getVisitCount() {
+		return visitCount;
+	}
+
+	/**
+	 * Gets the date of the member's last transaction.
+	 * 
+	 * @return date of the last visit, null if the member hasn't checked out yet
+	 */
+	public Calendar getLastVisit() {
+		return lastVisit;
+	}
+
+	/**
+	 * Removes the member's transactions made before a certain date (so they can be
+	 * moved to a cold storage).
+	 *
+	 * @param cutoff - transactions made before this date are removed
+	 * @return list of the removed transactions
+	 */
+	public ArrayList<Transaction> removeTransactionsBefore(Calendar cutoff) {
+		ArrayList<Transaction> removed = new ArrayList<Transaction>();
+		ArrayList<Transaction> kept = new ArrayList<Transaction>();
+		for (Transaction transaction : transactions) {
+			if (transaction.getDate().before(cutoff)) {
+				removed.add(transaction);
+			} else {
+				kept.add(transaction);
+			}
+		}
+		if (!removed.isEmpty()) {
+			transactions = kept;
+		}
+		return removed;
+	}
+
+	/**
+	 * Gets the date of the member's oldest transaction kept in memory.
+	 * Transactions are added as checkouts close, so the first one is the oldest.
+	 *
+	 * @return date of the oldest transaction, null if the member has none
+	 */
+	public Calendar getOldestTransactionDate() {
+		if (transactions.isEmpty()) {
+			return null;
+		}
+		return transactions.get(0).getDate();
+	}
+
+	/**
+	 * Gets a list of all the member's transactions kept in memory.
+	 * 
+	 * @return an iterator over the list of transactions
+	 */
+	public Iterator<Transaction> getTransactions() {
+		return transactions.iterator();
 	}
 
 	/**
@@ -103,17 +191,33 @@ public class Member implements Serializable {
 	 * 
 	 * @param fromDate - upper bound of the time period for the transaction list
 	 * @param toDate   - lower bound of the time period for the transaction list
-	 * @return an iterator over the desired list of transactions
+	 * @return an iterator over the desired list of transactions (the transactions
+	 *         are filtered lazily, as the iterator is advanced)
 	 */
 	public Iterator<Transaction> getTransactions(Calendar fromDate, Calendar toDate) {
-		ArrayList<Transaction> output = new ArrayList<Transaction>();
-		for (Iterator<Transaction> iterator = transactions.iterator(); iterator.hasNext();) {
-			Transaction transaction = iterator.next();
-			if (transaction.isBetweenDates(fromDate, toDate)) {
-				output.add(transaction);
+		return transactions.stream().filter(transaction -> transaction.isBetweenDates(fromDate, toDate)).iterator();
+	}
+
+	/**
+	 * Restores the member from a backup file. Members saved by older versions of
+	 * the application have no lifetime aggregates; they are computed from the
+	 * transactions.
+	 */
+	private void readObject(ObjectInputStream input) throws IOException, ClassNotFoundException {
+		input.defaultReadObject();
+		if (visitCount == 0 && !transactions.isEmpty()) {
+			for (Transaction transaction : transactions) {
+				lifetimeSpend += transaction.getTotalPrice();
+				visitCount++;
+				if (lastVisit == null || transaction.getDate().after(lastVisit)) {
+					lastVisit = transaction.getDate();
+				}
 			}
 		}
-		return output.iterator();
+		// backups made before the last visit was copied share it with a transaction
+		if (lastVisit != null) {
+			lastVisit = (Calendar) lastVisit.clone();
+		}
 	}
 
 	@Override
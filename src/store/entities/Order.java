@@ -23,6 +23,9 @@ public class Order implements Serializable {
 	// the order is outstanding until delivery when isOutstanding is set to FALSE by
 	// user
 	private boolean isOutstanding;
+	// number of the purchase order the order is a line of (null if it was placed
+	// on its own)
+	private String purchaseOrderNumber;
 
 	/**
 	 * The constructor. At the point of creation of an order, the date and time is
@@ -74,6 +77,14 @@ public class Order implements Serializable {
 		return productId;
 	}
 
+	public String getPurchaseOrderNumber() {
+		return purchaseOrderNumber;
+	}
+
+	public void setPurchaseOrderNumber(String purchaseOrderNumber) {
+		this.purchaseOrderNumber = purchaseOrderNumber;
+	}
+
 	public Calendar getDateOfOrder() {
 		return dateOfOrder;
 	}
@@ -0,0 +1,59 @@
+package store.entities;
+
+import java.io.Serializable;
+
+/**
+ * Class PriceVersion is one version of the price of a product. A version never
+ * changes once created; a price change creates a new version with the next
+ * number, and the product switches to it in a single write. Checkout lanes read
+ * the current version without any locking and always see a whole version.
+ *
+ * @author Ben Hines, Carter Clark, Chris Lara-Batencourt, Pavel Danek, Ricky
+ *         Nguyen
+ *
+ */
+public final class PriceVersion implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+	private final double price;
+	private final int version;
+	private final long effectiveMillis;
+
+	/**
+	 * The constructor.
+	 *
+	 * @param price           - the price
+	 * @param version         - number of the version (the first price of a
+	 *                        product is version 1)
+	 * @param effectiveMillis - time since when the price is in effect
+	 */
+	public PriceVersion(double price, int version, long effectiveMillis) {
+		this.price = price;
+		this.version = version;
+		this.effectiveMillis = effectiveMillis;
+	}
+
+	/**
+	 * Creates the version following this one.
+	 *
+	 * @param price           - the new price
+	 * @param effectiveMillis - time since when the new price is in effect
+	 * @return the new version
+	 */
+	public PriceVersion next(double price, long effectiveMillis) {
+		return new PriceVersion(price, version + 1, effectiveMillis);
+	}
+
+	public double getPrice() {
+		return price;
+	}
+
+	public int getVersion() {
+		return version;
+	}
+
+	public long getEffectiveMillis() {
+		return effectiveMillis;
+	}
+
+}
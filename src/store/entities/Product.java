@@ -1,5 +1,7 @@
 package store.entities;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 
 /**
@@ -15,12 +17,30 @@ public class Product implements Serializable {
 	private static final long serialVersionUID = 1L;
 	private String name;
 	private String id;
+	// price as a plain number; kept in step with the price version only so that
+	// backups stay readable by older versions of the application
 	private double currentPrice;
-	private int stockOnHand;
+	// current version of the price, replaced as a whole on every price change
+	private volatile PriceVersion price;
+	// changed only under the lock of the stock reservations, read by anyone
+	private volatile int stockOnHand;
 	private int reorderLevel;
 	// isOrdered field indicates if the product is back-ordered (in the process of
 	// being delivered) to facilitate control over subsequent orders
 	private boolean isOrdered;
+	// set when the stock fell to or below the reorder level, so the fall is
+	// signalled only once; cleared when the stock gets above the level again or
+	// a pending order is delivered
+	private boolean lowStockSignalled;
+	// quantity ordered when the product is reordered; 0 means twice the reorder
+	// level (the original rule)
+	private int orderQuantity;
+	// exponentially weighted sales velocity (units per day) as of lastSaleMillis
+	private double salesVelocity;
+	private long lastSaleMillis;
+	// time constant (in days) of the sales velocity: older sales fade with it
+	public static final double VELOCITY_WINDOW_DAYS = 7.0;
+	private static final double DAY_MILLIS = 24.0 * 60 * 60 * 1000;
 
 	/**
 	 * The constructor. Every Product created is "marked" as not ordered.
@@ -34,6 +54,7 @@ public class Product implements Serializable {
 	public Product(String name, String id, double currentPrice, int stockOnHand, int reorderLevel) {
 		this.name = name;
 		this.currentPrice = currentPrice;
+		this.price = new PriceVersion(currentPrice, 1, System.currentTimeMillis());
 		this.stockOnHand = stockOnHand;
 		this.reorderLevel = reorderLevel;
 		this.isOrdered = false;
@@ -49,11 +70,41 @@ public class Product implements Serializable {
 	}
 
 	public double getCurrentPrice() {
-		return currentPrice;
+		return price.getPrice();
 	}
 
+	/**
+	 * Gets the current version of the product's price. Reading it takes no lock,
+	 * and the price, version number and effective time always belong together.
+	 * 
+	 * @return the current price version
+	 */
+	public PriceVersion getPriceVersion() {
+		return price;
+	}
+
+	/**
+	 * Changes the price of the product with effect from now.
+	 * 
+	 * @param currentPrice - the new price
+	 */
 	public void setCurrentPrice(double currentPrice) {
+		setCurrentPrice(currentPrice, System.currentTimeMillis());
+	}
+
+	/**
+	 * Changes the price of the product by switching to a new price version.
+	 * Writers are serialized among themselves so the version numbers don't
+	 * repeat; readers are never blocked.
+	 * 
+	 * @param currentPrice    - the new price
+	 * @param effectiveMillis - time since when the new price is in effect
+	 * @return the new price version
+	 */
+	public synchronized PriceVersion setCurrentPrice(double currentPrice, long effectiveMillis) {
+		price = price.next(currentPrice, effectiveMillis);
 		this.currentPrice = currentPrice;
+		return price;
 	}
 
 	public int getStockOnHand() {
@@ -61,15 +112,26 @@ public class Product implements Serializable {
 	}
 
 	/**
-	 * One of the Product's setters.
+	 * One of the Product's setters. It signals when the stock falls to or below
+	 * the reorder level, exactly once per such fall: further changes while the
+	 * stock stays low don't signal again, until the stock gets above the reorder
+	 * level or a pending order is delivered (see setOrdered).
 	 * 
 	 * @param stockOnHand - the quantity of the product available
-	 * @return TRUE if the stock should be reordered, FALSE if the stock is
-	 *         sufficient
+	 * @return TRUE if the stock just became low (it should be reordered), FALSE
+	 *         if it's sufficient or its fall was already signalled
 	 */
 	public boolean setStockOnHand(int stockOnHand) {
 		this.stockOnHand = stockOnHand;
-		return (this.stockOnHand <= reorderLevel);
+		if (this.stockOnHand > reorderLevel) {
+			lowStockSignalled = false;
+			return false;
+		}
+		if (lowStockSignalled) {
+			return false;
+		}
+		lowStockSignalled = true;
+		return true;
 	}
 
 	public int getReorderLevel() {
@@ -80,6 +142,45 @@ public class Product implements Serializable {
 		this.reorderLevel = reorderLevel;
 	}
 
+	/**
+	 * Gets the quantity ordered when the product is reordered.
+	 * 
+	 * @return the order quantity, twice the reorder level unless it was tuned
+	 */
+	public int getOrderQuantity() {
+		return (orderQuantity > 0) ? orderQuantity : reorderLevel * 2;
+	}
+
+	public void setOrderQuantity(int orderQuantity) {
+		this.orderQuantity = orderQuantity;
+	}
+
+	/**
+	 * Adds a sale to the product's sales velocity. The velocity decays
+	 * exponentially with time, so it takes constant time per sale and follows
+	 * the recent pace of sales.
+	 * 
+	 * @param units  - units sold
+	 * @param millis - time of the sale
+	 */
+	public void recordSale(int units, long millis) {
+		salesVelocity = getSalesVelocity(millis) + units / VELOCITY_WINDOW_DAYS;
+		lastSaleMillis = Math.max(lastSaleMillis, millis);
+	}
+
+	/**
+	 * Gets the sales velocity of the product at a certain time.
+	 * 
+	 * @param millis - the time
+	 * @return estimated units sold per day
+	 */
+	public double getSalesVelocity(long millis) {
+		if (lastSaleMillis == 0 || millis <= lastSaleMillis) {
+			return salesVelocity;
+		}
+		return salesVelocity * Math.exp(-(millis - lastSaleMillis) / DAY_MILLIS / VELOCITY_WINDOW_DAYS);
+	}
+
 	public String getId() {
 		return id;
 	}
@@ -88,10 +189,32 @@ public class Product implements Serializable {
 		return isOrdered;
 	}
 
+	/**
+	 * Marks the product as ordered or not. When a pending order is delivered
+	 * (the product is no longer ordered), the next fall of a still low stock is
+	 * signalled again.
+	 * 
+	 * @param isOrdered - TRUE if there is a pending order of the product
+	 */
 	public void setOrdered(boolean isOrdered) {
+		if (this.isOrdered && !isOrdered) {
+			lowStockSignalled = false;
+		}
 		this.isOrdered = isOrdered;
 	}
 
+	/**
+	 * Restores the product from a backup file. Products saved by older versions
+	 * of the application have a plain price only; it becomes their first price
+	 * version.
+	 */
+	private void readObject(ObjectInputStream input) throws IOException, ClassNotFoundException {
+		input.defaultReadObject();
+		if (price == null) {
+			price = new PriceVersion(currentPrice, 1, 0);
+		}
+	}
+
 	@Override
 	public String toString() {
 		return "Product name: " + name + "\tProduct ID: " + id;
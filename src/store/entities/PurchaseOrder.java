@@ -0,0 +1,88 @@
+package store.entities;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.Iterator;
+
+/**
+ * Class PurchaseOrder represents a consolidated order to a vendor: the
+ * products that ran low during a reorder window, each of them on its own line.
+ * Every line is an Order, so it can also be received on its own; the purchase
+ * order is outstanding while any of its lines is.
+ *
+ * @author Ben Hines, Carter Clark, Chris Lara-Batencourt, Pavel Danek, Ricky
+ *         Nguyen
+ *
+ */
+public class PurchaseOrder implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+	private String purchaseOrderNumber;
+	private Calendar dateOfOrder;
+	private ArrayList<Order> lines = new ArrayList<Order>();
+
+	/**
+	 * The constructor. The date and time of the purchase order is recorded.
+	 *
+	 * @param idCounter - number of the purchase order
+	 */
+	public PurchaseOrder(int idCounter) {
+		dateOfOrder = new GregorianCalendar();
+		dateOfOrder.setTimeInMillis(System.currentTimeMillis());
+		purchaseOrderNumber = "PO-" + idCounter;
+	}
+
+	/**
+	 * Adds a line (an order of a single product) to the purchase order.
+	 *
+	 * @param order - the order being added
+	 */
+	public void addLine(Order order) {
+		order.setPurchaseOrderNumber(purchaseOrderNumber);
+		lines.add(order);
+	}
+
+	public String getPurchaseOrderNumber() {
+		return purchaseOrderNumber;
+	}
+
+	public Calendar getDateOfOrder() {
+		return dateOfOrder;
+	}
+
+	public int getLineCount() {
+		return lines.size();
+	}
+
+	/**
+	 * Gets all lines of the purchase order.
+	 *
+	 * @return an iterator to the list of the orders on the purchase order
+	 */
+	public Iterator<Order> getLines() {
+		return lines.iterator();
+	}
+
+	/**
+	 * Determines whether any line of the purchase order hasn't been delivered.
+	 *
+	 * @return TRUE if some line is outstanding, FALSE if all were delivered
+	 */
+	public boolean isOutstanding() {
+		for (Order order : lines) {
+			if (order.isOutstanding()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public String toString() {
+		return "PurchaseOrder [purchaseOrderNumber=" + purchaseOrderNumber + ", dateOfOrder=" + dateOfOrder
+				+ ", lines=" + lines.size() + "]";
+	}
+
+}
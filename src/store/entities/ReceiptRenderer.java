@@ -0,0 +1,121 @@
+package store.entities;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Calendar;
+import java.util.Iterator;
+
+/**
+ * Class ReceiptRenderer writes transactions as printed receipts straight into
+ * an Appendable (a Writer, a PrintStream, a StringBuilder...). The columns are
+ * fixed, so every line is written piece by piece with no String.format and no
+ * concatenation; printing many receipts takes time proportional to the number
+ * of lines. Amounts are rounded the same way as by String.format.
+ *
+ * @author Ben Hines, Carter Clark, Chris Lara-Batencourt, Pavel Danek, Ricky
+ *         Nguyen
+ *
+ */
+public final class ReceiptRenderer {
+
+	// widths of the columns of an item line
+	private static final int NAME_WIDTH = 18;
+	private static final int QUANTITY_WIDTH = 3;
+	private static final int UNIT_PRICE_WIDTH = 6;
+	private static final int ITEM_PRICE_WIDTH = 8;
+	private static final String RULE = "----------------------------------------------------";
+	private static final String TOTAL = "TOTAL ------------------------------------ $";
+
+	private ReceiptRenderer() {
+	}
+
+	/**
+	 * Writes a whole receipt of a transaction: the date, a line for every item
+	 * and the total.
+	 *
+	 * @param output      - where the receipt is written
+	 * @param transaction - the transaction
+	 * @throws IOException if the output can't be written to
+	 */
+	public static void writeTransaction(Appendable output, Transaction transaction) throws IOException {
+		Calendar date = transaction.getDate();
+		output.append("Transaction made on ");
+		appendPadded(output, date.get(Calendar.MONTH) + 1, 2);
+		output.append('/');
+		appendPadded(output, date.get(Calendar.DAY_OF_MONTH), 2);
+		output.append('/');
+		appendPadded(output, date.get(Calendar.YEAR), 4);
+		output.append(" at ");
+		appendPadded(output, date.get(Calendar.HOUR_OF_DAY), 2);
+		output.append(':');
+		appendPadded(output, date.get(Calendar.MINUTE), 2);
+		output.append(':');
+		appendPadded(output, date.get(Calendar.SECOND), 2);
+		output.append('\n').append(RULE).append('\n');
+		for (Iterator<Item> iterator = transaction.getItems(); iterator.hasNext();) {
+			writeItem(output, iterator.next());
+			output.append('\n');
+		}
+		output.append(TOTAL);
+		appendAmount(output, transaction.getTotalPrice(), ITEM_PRICE_WIDTH);
+		output.append('\n');
+	}
+
+	/**
+	 * Writes a single line of a receipt (without the line break).
+	 *
+	 * @param output - where the line is written
+	 * @param item   - the item
+	 * @throws IOException if the output can't be written to
+	 */
+	public static void writeItem(Appendable output, Item item) throws IOException {
+		String name = item.getName();
+		if (name.length() > NAME_WIDTH) {
+			output.append(name, 0, NAME_WIDTH);
+		} else {
+			output.append(name);
+			appendSpaces(output, NAME_WIDTH - name.length());
+		}
+		output.append("  ");
+		String quantity = Integer.toString(item.getQuantity());
+		appendSpaces(output, QUANTITY_WIDTH - quantity.length());
+		output.append(quantity).append("x  ($");
+		appendAmount(output, item.getUnitPrice(), UNIT_PRICE_WIDTH);
+		output.append("/unit):  $");
+		appendAmount(output, item.getItemPrice(), ITEM_PRICE_WIDTH);
+	}
+
+	// writes a number with leading zeros (dates)
+	private static void appendPadded(Appendable output, int number, int width) throws IOException {
+		String digits = Integer.toString(number);
+		for (int i = digits.length(); i < width; i++) {
+			output.append('0');
+		}
+		output.append(digits);
+	}
+
+	// writes an amount with two decimals aligned to the right of the column; it's
+	// rounded half up from its shortest decimal form, as String.format does (1.005
+	// is 1.01)
+	private static void appendAmount(Appendable output, double amount, int width) throws IOException {
+		long cents = BigDecimal.valueOf(Math.abs(amount)).setScale(2, RoundingMode.HALF_UP).unscaledValue()
+				.longValue();
+		String whole = Long.toString(cents / 100);
+		int fraction = (int) (cents % 100);
+		boolean negative = amount < 0;
+		appendSpaces(output, width - whole.length() - 3 - (negative ? 1 : 0));
+		if (negative) {
+			output.append('-');
+		}
+		output.append(whole).append('.');
+		output.append((char) ('0' + fraction / 10)).append((char) ('0' + fraction % 10));
+	}
+
+	private static void appendSpaces(Appendable output, int count) throws IOException {
+		for (int i = 0; i < count; i++) {
+			output.append(' ');
+		}
+	}
+
+}
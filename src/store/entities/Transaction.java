@@ -1,9 +1,11 @@
 package store.entities;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.GregorianCalendar;
+import java.util.HashMap;
 import java.util.Iterator;
 
 /**
@@ -23,6 +25,9 @@ public class Transaction implements Serializable {
 	private ArrayList<Item> itemsList;
 	private double totalPrice;
 	private String memberId;
+	// the line of every product (by its ID), so that repeated scans of a product
+	// are merged into one line; not saved, rebuilt from itemsList when needed
+	private transient HashMap<String, Item> lines;
 
 	/**
 	 * The constructor. At the point of creation of a transaction, the date and time
@@ -64,12 +69,60 @@ public class Transaction implements Serializable {
 
 	/**
 	 * Adds a new checkout item into the transaction and updates the totalPrice.
+	 * If the product is already on the transaction at the same price version,
+	 * the quantity is added to its line instead of creating a new one.
 	 * 
 	 * @param item - item being added
 	 */
 	public void addItem(Item item) {
-		itemsList.add(item);
-		totalPrice += item.getItemPrice();
+		if (!mergeItem(item.getProductId(), item.getQuantity(), item.getUnitPrice(), item.getPriceVersion())) {
+			itemsList.add(item);
+			lines.put(item.getProductId(), item);
+			totalPrice += item.getItemPrice();
+		}
+	}
+
+	/**
+	 * Adds a quantity to the line of a product at a price version and updates the
+	 * totalPrice, if the transaction has such a line. A repeated scan is merged
+	 * this way without creating an Item for it.
+	 * 
+	 * @param productId    - product ID of the item checked out
+	 * @param quantity     - quantity of the item checked out
+	 * @param unitPrice    - price of the item checked out
+	 * @param priceVersion - version of the product's price the item is checked
+	 *                     out at
+	 * @return TRUE if the quantity was merged into a line, FALSE if there's no
+	 *         line of the product at that price
+	 */
+	public boolean mergeItem(String productId, int quantity, double unitPrice, int priceVersion) {
+		Item line = lines().get(productId);
+		if (line == null || line.getUnitPrice() != unitPrice || line.getPriceVersion() != priceVersion) {
+			return false;
+		}
+		line.addQuantity(quantity);
+		totalPrice += quantity * unitPrice;
+		return true;
+	}
+
+	/**
+	 * Gets the number of lines (distinct products and prices) of the
+	 * transaction.
+	 * 
+	 * @return number of lines
+	 */
+	public int getLineCount() {
+		return itemsList.size();
+	}
+
+	private HashMap<String, Item> lines() {
+		if (lines == null) {
+			lines = new HashMap<String, Item>();
+			for (Item item : itemsList) {
+				lines.put(item.getProductId(), item);
+			}
+		}
+		return lines;
 	}
 
 	/**
@@ -105,15 +158,13 @@ public class Transaction implements Serializable {
 
 	@Override
 	public String toString() {
-		String output;
-		output = "Transaction made on ";
-		output += String.format("%1$tm/%1$td/%1$tY at %1$tT", date);
-		output += "\n----------------------------------------------------\n";
-		for (Iterator<Item> iterator = itemsList.iterator(); iterator.hasNext();) {
-			output += iterator.next().toString() + "\n";
+		StringBuilder output = new StringBuilder(64 * (itemsList.size() + 3));
+		try {
+			ReceiptRenderer.writeTransaction(output, this);
+		} catch (IOException exception) {
+			// a StringBuilder never throws
 		}
-		output += "TOTAL ------------------------------------ $" + String.format("%8.2f", totalPrice) + "\n";
-		return output;
+		return output.toString();
 	}
 
 }
@@ -0,0 +1,75 @@
+package store.facade;
+
+import java.io.Serializable;
+
+/**
+ * Class BestSellers keeps live, bounded-memory summaries of the products sold
+ * the most in two sliding windows: the last hour and today. The last hour is
+ * made of six ten-minute slots, each with its own SpaceSaving summary; a slot
+ * is cleared when it's reused, so old sales fall out of the window by
+ * themselves. Every sale costs a constant amount of work.
+ *
+ * @author Ben Hines, Carter Clark, Chris Lara-Batencourt, Pavel Danek, Ricky
+ *         Nguyen
+ *
+ */
+public class BestSellers implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+	public static final int LAST_HOUR = 0;
+	public static final int TODAY = 1;
+	// number of counters per summary; top-N queries are meaningful up to this N
+	public static final int CAPACITY = 100;
+	private static final int SLOTS = 6;
+	private static final long SLOT_WIDTH = 10 * TimeBuckets.MINUTE;
+
+	private SpaceSaving[] hourSlots = new SpaceSaving[SLOTS];
+	private long[] slotNumbers = new long[SLOTS];
+	private SpaceSaving today = new SpaceSaving(CAPACITY);
+	private long todayNumber;
+
+	/**
+	 * Adds a sale of a product.
+	 *
+	 * @param productId - ID of the product sold
+	 * @param units     - units sold
+	 * @param millis    - time of the sale
+	 */
+	public void record(String productId, int units, long millis) {
+		long slotNumber = TimeBuckets.bucket(millis, SLOT_WIDTH);
+		int slot = (int) Math.floorMod(slotNumber, (long) SLOTS);
+		if (hourSlots[slot] == null || slotNumbers[slot] != slotNumber) {
+			hourSlots[slot] = new SpaceSaving(CAPACITY);
+			slotNumbers[slot] = slotNumber;
+		}
+		hourSlots[slot].offer(productId, units);
+		long day = TimeBuckets.bucket(millis, TimeBuckets.DAY);
+		if (todayNumber != day) {
+			today = new SpaceSaving(CAPACITY);
+			todayNumber = day;
+		}
+		today.offer(productId, units);
+	}
+
+	/**
+	 * Gets the summary of a window.
+	 *
+	 * @param window - LAST_HOUR or TODAY
+	 * @param millis - current time
+	 * @return summary of the sales in the window
+	 */
+	public SpaceSaving getSummary(int window, long millis) {
+		if (window == TODAY) {
+			return (todayNumber == TimeBuckets.bucket(millis, TimeBuckets.DAY)) ? today : new SpaceSaving(CAPACITY);
+		}
+		long current = TimeBuckets.bucket(millis, SLOT_WIDTH);
+		SpaceSaving merged = new SpaceSaving(CAPACITY * SLOTS);
+		for (int slot = 0; slot < SLOTS; slot++) {
+			if (hourSlots[slot] != null && current - slotNumbers[slot] < SLOTS) {
+				merged.merge(hourSlots[slot]);
+			}
+		}
+		return merged;
+	}
+
+}
@@ -0,0 +1,72 @@
+package store.facade;
+
+/**
+ * Class ChangeCursor is the reading position of one consumer of the change
+ * log (e.g. a dashboard or a backup). Every consumer has its own cursor and
+ * reads at its own pace; the store never waits for consumers.
+ *
+ * @author Ben Hines, Carter Clark, Chris Lara-Batencourt, Pavel Danek, Ricky
+ *         Nguyen
+ *
+ */
+public class ChangeCursor {
+
+	private ChangeLog log;
+	// sequence number of the next event to read
+	private long position;
+	private long missed;
+
+	/**
+	 * The constructor. Only the change log opens cursors.
+	 */
+	ChangeCursor(ChangeLog log, long position) {
+		this.log = log;
+		this.position = position;
+	}
+
+	/**
+	 * Reads the next event, if there is one. If the cursor fell more than the
+	 * capacity of the log behind, it skips to the oldest event still kept (the
+	 * events skipped are counted as missed).
+	 *
+	 * @param event - the consumer's event the next event is copied into
+	 * @return TRUE if an event was read, FALSE if no new event has been published
+	 *         yet
+	 */
+	public boolean next(StoreEvent event) {
+		while (true) {
+			long found = log.read(position, event);
+			if (found == position) {
+				position++;
+				return true;
+			}
+			if (found < position) {
+				// not published (or still being written)
+				return false;
+			}
+			// overwritten: the events before the oldest one kept are lost
+			long oldest = Math.max(position + 1, log.getNextSequence() - log.getCapacity());
+			missed += oldest - position;
+			position = oldest;
+		}
+	}
+
+	/**
+	 * Gets the sequence number of the next event the cursor will read.
+	 *
+	 * @return the sequence number
+	 */
+	public long getPosition() {
+		return position;
+	}
+
+	/**
+	 * Gets the number of events overwritten before the cursor could read them.
+	 *
+	 * @return number of the missed events
+	 */
+	public long getMissed() {
+		return missed;
+	}
+
+}
@@ -0,0 +1,120 @@
+package store.facade;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Class ChangeLog is a stream of all changes made to the grocery store's data
+ * (change data capture), kept in a ring of pre-allocated event slots. Every
+ * change is published under the next sequence number into the slot for that
+ * number, overwriting the event a full ring earlier; publishing takes no locks
+ * and creates no objects. Consumers read the events through cursors of their
+ * own, each at its own pace; a consumer falling more than a ring behind skips
+ * the events overwritten meanwhile and is told how many it missed.
+ *
+ * @author Ben Hines, Carter Clark, Chris Lara-Batencourt, Pavel Danek, Ricky
+ *         Nguyen
+ *
+ */
+public class ChangeLog {
+
+	public static final int DEFAULT_CAPACITY = 4096;
+
+	private final StoreEvent[] slots;
+	// sequence number of the event in every slot; -1 while the slot is being
+	// written (or before it was written at all)
+	private final AtomicLongArray published;
+	private final int mask;
+	// sequence number of the next event
+	private final AtomicLong next = new AtomicLong();
+
+	/**
+	 * The constructor. All slots are allocated up front.
+	 *
+	 * @param capacity - number of events kept (rounded up to a power of two)
+	 */
+	public ChangeLog(int capacity) {
+		int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+		slots = new StoreEvent[size];
+		published = new AtomicLongArray(size);
+		for (int index = 0; index < size; index++) {
+			slots[index] = new StoreEvent();
+			published.set(index, -1);
+		}
+		mask = size - 1;
+	}
+
+	/**
+	 * Publishes a change. Any number of threads can publish at the same time; each
+	 * claims its own sequence number and writes its own slot.
+	 *
+	 * @param type      - type of the event (one of the StoreEvent constants)
+	 * @param memberId  - ID of the member concerned, "" if none
+	 * @param productId - ID of the product concerned, "" if none
+	 * @param orderId   - number of the order concerned, "" if none
+	 * @param quantity  - quantity (meaning depends on the type)
+	 * @param price     - price or amount (meaning depends on the type)
+	 */
+	public void publish(int type, String memberId, String productId, String orderId, int quantity, double price) {
+		long sequence = next.getAndIncrement();
+		int index = (int) (sequence & mask);
+		// readers see the slot is being written before any of its fields change
+		published.set(index, -1);
+		VarHandle.storeStoreFence();
+		slots[index].set(sequence, System.currentTimeMillis(), type, memberId, productId, orderId, quantity, price);
+		published.set(index, sequence);
+	}
+
+	/**
+	 * Opens a cursor reading the events published from now on.
+	 *
+	 * @return the cursor
+	 */
+	public ChangeCursor newCursor() {
+		return new ChangeCursor(this, next.get());
+	}
+
+	/**
+	 * Opens a cursor reading from the oldest event still kept.
+	 *
+	 * @return the cursor
+	 */
+	public ChangeCursor newCursorFromOldest() {
+		return new ChangeCursor(this, Math.max(0, next.get() - slots.length));
+	}
+
+	public int getCapacity() {
+		return slots.length;
+	}
+
+	/**
+	 * Gets the sequence number the next event will be published under.
+	 *
+	 * @return the sequence number (also the number of events published so far)
+	 */
+	public long getNextSequence() {
+		return next.get();
+	}
+
+	/**
+	 * Copies the event of a certain sequence number (to be used by cursors only).
+	 *
+	 * @param sequence - sequence number of the event
+	 * @param event    - the event the fields are copied into
+	 * @return sequence number now in the slot (the event was copied only if it's
+	 *         the one asked for and the slot didn't change while being copied)
+	 */
+	long read(long sequence, StoreEvent event) {
+		int index = (int) (sequence & mask);
+		long found = published.get(index);
+		if (found != sequence) {
+			return found;
+		}
+		event.copy(slots[index]);
+		// the copy is valid only if the slot wasn't overwritten meanwhile
+		VarHandle.acquireFence();
+		return published.get(index);
+	}
+
+}
@@ -26,6 +26,9 @@ public class DataTransfer {
 	private String memberPhoneNumber;
 	private Calendar memberDateJoined;
 	private double memberFeePaid;
+	private double memberLifetimeSpend;
+	private int memberVisitCount;
+	private Calendar memberLastVisit;
 	private String productName;
 	private String productId;
 	private int productStockOnHand;
@@ -56,6 +59,9 @@ public class DataTransfer {
 		memberPhoneNumber = "";
 		memberDateJoined = null;
 		memberFeePaid = 0.0;
+		memberLifetimeSpend = 0.0;
+		memberVisitCount = 0;
+		memberLastVisit = null;
 		productName = "";
 		productId = "";
 		productStockOnHand = 0;
@@ -169,6 +175,18 @@ public class DataTransfer {
 		this.memberFeePaid = memberFeePaid;
 	}
 
+	public double getMemberLifetimeSpend() {
+		return memberLifetimeSpend;
+	}
+
+	public int getMemberVisitCount() {
+		return memberVisitCount;
+	}
+
+	public Calendar getMemberLastVisit() {
+		return memberLastVisit;
+	}
+
 	public String getProductName() {
 		return productName;
 	}
@@ -251,6 +269,10 @@ public class DataTransfer {
 		memberPhoneNumber = member.getPhoneNumber();
 		memberDateJoined = member.getDateJoined();
 		memberFeePaid = member.getFeePaid();
+		memberLifetimeSpend = member.getLifetimeSpend();
+		memberVisitCount = member.getVisitCount();
+		// a copy: callers may pass it to date queries, which change the dates given
+		memberLastVisit = (member.getLastVisit() == null) ? null : (Calendar) member.getLastVisit().clone();
 	}
 
 	/**
@@ -2,17 +2,35 @@ package store.facade;
 
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import store.entities.Item;
 import store.entities.Member;
 import store.entities.Order;
+import store.entities.PriceVersion;
 import store.entities.Product;
+import store.entities.PurchaseOrder;
+import store.entities.ReceiptRenderer;
 import store.entities.Transaction;
 
 /**
@@ -27,12 +45,56 @@ public class GroceryStore implements Serializable {
 
 	private static final long serialVersionUID = 1L;
 	public static final String BACKUP_FILE_NAME = "GroceryStore.dat";
+	public static final String ARCHIVE_DIRECTORY = "GroceryStoreArchive";
+	public static final int DEFAULT_RETENTION_DAYS = 365;
+	// a checkout not scanning anything for this long loses its stock reservation
+	public static final int DEFAULT_RESERVATION_TIMEOUT_MINUTES = 30;
+	// a member's transactions are archived in batches: only once the oldest one is
+	// this many days past the retention period
+	private static final int ARCHIVE_BATCH_DAYS = 30;
+	// the background archiving of old transactions runs this often
+	private static final int ARCHIVE_PERIOD_HOURS = 24;
 	private static GroceryStore singleton;
 	// this class builds and maintains three essential lists: membersList,
 	// productsList, and ordersList
 	private MembersList membersList = new MembersList();
 	private ProductsList productsList = new ProductsList();
 	private OrdersList ordersList = new OrdersList();
+	// old transactions of members are moved to the archive (cold storage on disk)
+	// once they are older than transactionRetentionDays
+	private TransactionArchive transactionArchive = new TransactionArchive(ARCHIVE_DIRECTORY);
+	private int transactionRetentionDays = DEFAULT_RETENTION_DAYS;
+	// per-product sales counters, updated as checkouts close
+	private ProductSales productSales = new ProductSales();
+	// live best sellers board (last hour and today)
+	private BestSellers bestSellers = new BestSellers();
+	// store revenue in minute, hour and day buckets
+	private RevenueRollup revenueRollup = new RevenueRollup();
+	// distinct shoppers of every product, per day
+	private ShopperCounts shopperCounts = new ShopperCounts();
+	// recomputes reorder levels of products from their sales velocity
+	private ReorderTuner reorderTuner = new ReorderTuner();
+	// background thread running the periodic tasks of the store; it's not saved
+	private transient ScheduledExecutorService scheduler;
+	private transient ScheduledFuture<?> reorderTuning;
+	// stock reserved by open checkouts; open checkouts are not saved, so neither are
+	// their reservations
+	private transient StockReservations reservations;
+	private int reservationTimeoutMinutes = DEFAULT_RESERVATION_TIMEOUT_MINUTES;
+	// low products are collected for reorderWindowMinutes and ordered together on
+	// one purchase order (0 means every product is reordered right away)
+	private int reorderWindowMinutes;
+	private ArrayList<Product> pendingReorders = new ArrayList<Product>();
+	private ArrayList<PurchaseOrder> purchaseOrders = new ArrayList<PurchaseOrder>();
+	private transient ScheduledFuture<?> reorderFlush;
+	// stream of all changes of the store's data for outside consumers (not saved
+	// with the store)
+	private transient ChangeLog changeLog = new ChangeLog(ChangeLog.DEFAULT_CAPACITY);
+	// listeners told when a product runs low (not saved with the store)
+	private transient CopyOnWriteArrayList<LowStockListener> lowStockListeners;
+	// price changes planned ahead, and the timer applying the earliest of them
+	private PriceSchedule priceSchedule = new PriceSchedule();
+	private transient ScheduledFuture<?> priceTimer;
 	// static field necessary for generating member IDs automatically
 	private static int memberIdCounter = 1;
 	private static int orderIdCounter = 1;
@@ -106,6 +168,20 @@ public class GroceryStore implements Serializable {
 			return members.iterator();
 		}
 
+		/**
+		 * Gets a single page of the list of members.
+		 * 
+		 * @param offset   - position of the first member of the page
+		 * @param pageSize - maximum number of members on the page
+		 * @return an iterator to the page of members
+		 */
+		public Iterator<Member> iterator(int offset, int pageSize) {
+			int from = Math.min(Math.max(offset, 0), members.size());
+			// the page is cut to what's left, so even a huge pageSize doesn't overflow
+			int to = from + Math.min(Math.max(pageSize, 0), members.size() - from);
+			return members.subList(from, to).iterator();
+		}
+
 	}
 
 	// ------------------------ProductsList Class---------------------------------
@@ -120,6 +196,13 @@ public class GroceryStore implements Serializable {
 
 		private static final long serialVersionUID = 1L;
 		private ArrayList<Product> products = new ArrayList<Product>();
+		// index of the products by their (case insensitive) IDs; it's not saved with
+		// the list but rebuilt on the first search after loading
+		private transient TreeMap<String, Product> index;
+		// secondary indexes used by product queries; they are built on demand and
+		// the price index is dropped whenever a price changes
+		private transient TreeMap<Long, ArrayList<Product>> priceIndex;
+		private transient TreeMap<String, Product> nameIndex;
 
 		/**
 		 * Adds a new product to the list.
@@ -129,6 +212,9 @@ public class GroceryStore implements Serializable {
 		 */
 		public String add(Product product) {
 			if (products.add(product)) {
+				index().putIfAbsent(product.getId(), product);
+				priceIndex = null;
+				nameIndex = null;
 				return products.get(products.size() - 1).getId();
 			} else {
 				return "";
@@ -136,19 +222,82 @@ public class GroceryStore implements Serializable {
 		}
 
 		/**
-		 * Searches for a product with a particular ID.
+		 * Searches for a product with a particular ID. The search uses the index and
+		 * doesn't allocate any objects.
 		 * 
 		 * @param id - the ID of the product searched for
 		 * @return Product object if found, null if not found
 		 */
 		public Product searchById(String id) {
-			for (Iterator<Product> iterator = products.iterator(); iterator.hasNext();) {
-				Product product = iterator.next();
-				if (product.getId().equalsIgnoreCase(id)) {
-					return product;
+			return index().get(id);
+		}
+
+		/**
+		 * Has to be called after a price of a product changed, so that product
+		 * queries don't use an outdated price index.
+		 */
+		public void priceChanged() {
+			priceIndex = null;
+		}
+
+		/**
+		 * Finds the products meeting all conditions of a query. A price range is
+		 * looked up in the price index, a name prefix in the name index; other
+		 * queries scan the list.
+		 * 
+		 * @param query - the query
+		 * @return stream of the products found
+		 */
+		public Stream<Product> query(ProductQuery query) {
+			Stream<Product> candidates;
+			if (query.hasPriceRange()) {
+				query.setPlan(ProductQuery.PLAN_PRICE_INDEX);
+				if (query.getMinPriceCents() > query.getMaxPriceCents()) {
+					return Stream.empty();
 				}
+				candidates = priceIndex().subMap(query.getMinPriceCents(), true, query.getMaxPriceCents(), true)
+						.values().stream().flatMap(ArrayList::stream);
+			} else if (query.hasNamePrefix()) {
+				query.setPlan(ProductQuery.PLAN_NAME_INDEX);
+				candidates = nameIndex()
+						.subMap(query.getNamePrefix(), query.getNamePrefix() + Character.MAX_VALUE).values().stream();
+			} else {
+				query.setPlan(ProductQuery.PLAN_SCAN);
+				candidates = products.stream();
 			}
-			return null;
+			return candidates.filter(query::matches);
+		}
+
+		private TreeMap<Long, ArrayList<Product>> priceIndex() {
+			if (priceIndex == null) {
+				priceIndex = new TreeMap<Long, ArrayList<Product>>();
+				for (Product product : products) {
+					priceIndex.computeIfAbsent(Math.round(product.getCurrentPrice() * 100),
+							cents -> new ArrayList<Product>()).add(product);
+				}
+			}
+			return priceIndex;
+		}
+
+		private TreeMap<String, Product> nameIndex() {
+			if (nameIndex == null) {
+				nameIndex = new TreeMap<String, Product>();
+				// the ID is part of the key, so products with equal names don't collide
+				for (Product product : products) {
+					nameIndex.put(product.getName().toUpperCase() + '\0' + product.getId(), product);
+				}
+			}
+			return nameIndex;
+		}
+
+		private TreeMap<String, Product> index() {
+			if (index == null) {
+				index = new TreeMap<String, Product>(String.CASE_INSENSITIVE_ORDER);
+				for (Product product : products) {
+					index.putIfAbsent(product.getId(), product);
+				}
+			}
+			return index;
 		}
 
 		/**
@@ -160,12 +309,29 @@ public class GroceryStore implements Serializable {
 			return products.iterator();
 		}
 
+		/**
+		 * Gets a single page of the list of products.
+		 * 
+		 * @param offset   - position of the first product of the page
+		 * @param pageSize - maximum number of products on the page
+		 * @return an iterator to the page of products
+		 */
+		public Iterator<Product> iterator(int offset, int pageSize) {
+			int from = Math.min(Math.max(offset, 0), products.size());
+			// the page is cut to what's left, so even a huge pageSize doesn't overflow
+			int to = from + Math.min(Math.max(pageSize, 0), products.size() - from);
+			return products.subList(from, to).iterator();
+		}
+
 	}
 
 	// ------------------------OrdersList Class---------------------------------
 	/**
 	 * Inner class of the GroceryStore. Only GroceryStore can use its methods and
-	 * manipulate the list of orders.
+	 * manipulate the list of orders. Orders are placed by the lanes and by the
+	 * background timer placing purchase orders, so the list, its order numbers
+	 * (orderIdCounter) and the fulfilment of its orders are all guarded by the
+	 * list's own lock. Reads get a copy made under the lock.
 	 * 
 	 * @author
 	 *
@@ -174,6 +340,9 @@ public class GroceryStore implements Serializable {
 
 		private static final long serialVersionUID = 1L;
 		private ArrayList<Order> orders = new ArrayList<Order>();
+		// orders are normally added in the order they were placed; if not (e.g. a
+		// test order with an older date) searches by date fall back to a full scan
+		private boolean outOfDateOrder;
 
 		/**
 		 * Adds a new order to the list. There is only one product per order.
@@ -181,7 +350,10 @@ public class GroceryStore implements Serializable {
 		 * @param order - the Order being added
 		 * @return the new order number if successful, an empty String if unsuccessful
 		 */
-		public String add(Order order) {
+		public synchronized String add(Order order) {
+			if (!orders.isEmpty() && order.getDateOfOrder().before(orders.get(orders.size() - 1).getDateOfOrder())) {
+				outOfDateOrder = true;
+			}
 			if (orders.add(order)) {
 				return orders.get(orders.size() - 1).getOrderNumber();
 			} else {
@@ -190,13 +362,28 @@ public class GroceryStore implements Serializable {
 
 		}
 
+		/**
+		 * Places a new order for a product under the next order number. The number
+		 * is taken and the order added in one step, so no two orders share a number.
+		 * 
+		 * @param productName - name of the product ordered
+		 * @param productId   - ID of the product ordered
+		 * @param quantity    - quantity ordered
+		 * @return the new Order
+		 */
+		public synchronized Order place(String productName, String productId, int quantity) {
+			Order order = new Order(productName, productId, quantity, orderIdCounter++);
+			add(order);
+			return order;
+		}
+
 		/**
 		 * Searches for an order with a particular order number/ID.
 		 * 
 		 * @param id - the ID of the order searched for
 		 * @return Order object if found, null if not found
 		 */
-		public Order searchById(String id) {
+		public synchronized Order searchById(String id) {
 			for (Iterator<Order> iterator = orders.iterator(); iterator.hasNext();) {
 				Order order = iterator.next();
 				if (order.getOrderNumber().equalsIgnoreCase(id)) {
@@ -206,13 +393,78 @@ public class GroceryStore implements Serializable {
 			return null;
 		}
 
+		/**
+		 * Searches for many orders at once, in a single pass over the list.
+		 * 
+		 * @param ids - the IDs of the orders searched for
+		 * @return the orders found, in the same order as the IDs (null for the IDs
+		 *         not found)
+		 */
+		public synchronized Order[] searchById(String[] ids) {
+			Order[] found = new Order[ids.length];
+			// positions of every ID wanted (an ID may be given more than once)
+			TreeMap<String, ArrayList<Integer>> wanted = new TreeMap<String, ArrayList<Integer>>(
+					String.CASE_INSENSITIVE_ORDER);
+			for (int position = 0; position < ids.length; position++) {
+				wanted.computeIfAbsent(ids[position], id -> new ArrayList<Integer>()).add(position);
+			}
+			for (Iterator<Order> iterator = orders.iterator(); iterator.hasNext() && !wanted.isEmpty();) {
+				Order order = iterator.next();
+				ArrayList<Integer> positions = wanted.remove(order.getOrderNumber());
+				if (positions != null) {
+					for (int position : positions) {
+						found[position] = order;
+					}
+				}
+			}
+			return found;
+		}
+
 		/**
 		 * Gets a list of all orders.
 		 * 
-		 * @return an iterator to the list of orders
+		 * @return an iterator to a copy of the list of orders
+		 */
+		public synchronized Iterator<Order> iterator() {
+			return new ArrayList<Order>(orders).iterator();
+		}
+
+		/**
+		 * Gets the orders placed in a time period.
+		 * 
+		 * @param fromMillis - beginning of the period
+		 * @param toMillis   - end of the period (inclusive)
+		 * @return stream of (a copy of) the orders placed in the period, oldest first
+		 */
+		public synchronized Stream<Order> stream(long fromMillis, long toMillis) {
+			if (outOfDateOrder) {
+				return orders.stream().filter(order -> order.getDateOfOrder().getTimeInMillis() >= fromMillis
+						&& order.getDateOfOrder().getTimeInMillis() <= toMillis).toList().stream();
+			}
+			int from = firstPlacedAfter(fromMillis - 1);
+			int to = Math.max(from, firstPlacedAfter(toMillis));
+			return new ArrayList<Order>(orders.subList(from, to)).stream();
+		}
+
+		/**
+		 * Binary search for the first order placed after a certain time.
+		 * 
+		 * @param millis - the time
+		 * @return index of the first order placed after millis, the size of the list
+		 *         if there is none
 		 */
-		public Iterator<Order> iterator() {
-			return orders.iterator();
+		private int firstPlacedAfter(long millis) {
+			int low = 0;
+			int high = orders.size();
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (orders.get(middle).getDateOfOrder().getTimeInMillis() <= millis) {
+					low = middle + 1;
+				} else {
+					high = middle;
+				}
+			}
+			return low;
 		}
 
 	}
@@ -233,6 +485,9 @@ public class GroceryStore implements Serializable {
 		private boolean checkOutOpen;
 		private String memberId;
 
+		// CheckOut's methods are synchronized, since the reservation reaper may
+		// expire the checkout from its own thread
+
 		/**
 		 * Opens a new checkout.
 		 * 
@@ -240,6 +495,7 @@ public class GroceryStore implements Serializable {
 		 */
 		public CheckOut(String memberId) {
 			checkOut = new Transaction();
+			checkOut.setMemberId(memberId);
 			this.memberId = memberId;
 			checkOutOpen = true;
 		}
@@ -249,7 +505,7 @@ public class GroceryStore implements Serializable {
 		 * 
 		 * @return TRUE if checkout is in progress, FALSE if not
 		 */
-		public boolean isOpen() {
+		public synchronized boolean isOpen() {
 			return checkOutOpen;
 		}
 
@@ -258,7 +514,7 @@ public class GroceryStore implements Serializable {
 		 * 
 		 * @return checkout total
 		 */
-		public double getTotalPrice() {
+		public synchronized double getTotalPrice() {
 			if (checkOutOpen) {
 				return checkOut.getTotalPrice();
 			} else {
@@ -273,38 +529,180 @@ public class GroceryStore implements Serializable {
 		 *                information (product ID and quantity checked out)
 		 * @return result code indicating the result of the action
 		 */
-		public Result addItem(Request request) {
+		public synchronized Result addItem(Request request) {
 			Result result = new Result();
 			Product product = productsList.searchById(request.getProductId());
-			// next if clause is carried out if there is a running checkout AND the product
-			// ID is valid AND there is enough quantity of the product on hand
-			if (checkOutOpen && product != null && product.getStockOnHand() >= request.getOrderQuantity()) {
-				// item is added to checkout, invoking Transaction's addItem method
-				checkOut.addItem(new Item(product.getName(), product.getId(), request.getOrderQuantity(),
-						product.getCurrentPrice()));
+			result.setResultCode(scan(product, request.getOrderQuantity()));
+			if (result.getResultCode() == Result.ACTION_SUCCESSFUL) {
 				// result fields are filled with relevant information (checked out product's
 				// fields and quantity)
 				result.setProductFields(product);
 				result.setOrderQuantity(request.getOrderQuantity());
-				// the stock on hand is updated
-				product.setStockOnHand(product.getStockOnHand() - request.getOrderQuantity());
-				// the result code is set
-				result.setResultCode(Result.ACTION_SUCCESSFUL);
-			} else {
+			}
+			return result;
+		}
+
+		/**
+		 * Puts an item of a certain quantity on a checkout without creating any
+		 * data transfer objects. Meant for busy checkout lanes, which keep reusing
+		 * the same ScanLine for all the items scanned.
+		 * 
+		 * @param productId - ID of the product checked out
+		 * @param quantity  - quantity of the product checked out
+		 * @param line      - caller's buffer the scanned line is written into (it's
+		 *                  left untouched if the item couldn't be checked out)
+		 * @return result code indicating the result of the action (one of the Result
+		 *         codes)
+		 */
+		public synchronized int scanItem(String productId, int quantity, ScanLine line) {
+			Product product = productsList.searchById(productId);
+			// the price is read once, so the line shows the price actually charged
+			PriceVersion price = (product == null) ? null : product.getPriceVersion();
+			int resultCode = scan(product, price, quantity);
+			if (resultCode == Result.ACTION_SUCCESSFUL) {
+				line.set(product.getId(), product.getName(), quantity, price.getPrice(), checkOut.getTotalPrice());
+			}
+			return resultCode;
+		}
+
+		/**
+		 * Puts a whole batch of items (e.g. a basket sent by a self-checkout or a
+		 * scale) on a checkout. All products are resolved first and the stock is
+		 * checked for the whole batch (quantities of the same product are added up)
+		 * before any item is put on the checkout.
+		 * 
+		 * @param productIds   - IDs of the products checked out
+		 * @param quantities   - quantities of the products checked out, in the same
+		 *                     order
+		 * @param allOrNothing - TRUE if no item may be added unless all of them can
+		 *                     be, FALSE if the valid items are added anyway
+		 * @return result code of every line (one of the Result codes); with
+		 *         allOrNothing, valid lines of a rejected batch get ACTION_FAILED;
+		 *         all lines get ACTION_FAILED if there isn't a quantity for every
+		 *         product
+		 */
+		public synchronized int[] addItems(String[] productIds, int[] quantities, boolean allOrNothing) {
+			int[] resultCodes = new int[productIds.length];
+			if (quantities.length != productIds.length) {
+				// the lines can't be matched up; nothing is added
+				Arrays.fill(resultCodes, Result.ACTION_FAILED);
+				return resultCodes;
+			}
+			Product[] products = new Product[productIds.length];
+			// stock still available to the batch, per product
+			IdentityHashMap<Product, Integer> available = new IdentityHashMap<Product, Integer>();
+			boolean allValid = true;
+			for (int line = 0; line < productIds.length; line++) {
+				Product product = productsList.searchById(productIds[line]);
+				products[line] = product;
 				if (!checkOutOpen) {
-					result.setResultCode(Result.ACTION_FAILED);
-					return result;
+					resultCodes[line] = Result.ACTION_FAILED;
+				} else if (product == null) {
+					resultCodes[line] = Result.INVALID_PRODUCT_ID;
+				} else {
+					int stock = available.getOrDefault(product, reservations.available(product));
+					if (quantities[line] < 0 || stock < quantities[line]) {
+						resultCodes[line] = Result.INVALID_ORDER_QUANTITY;
+					} else {
+						available.put(product, stock - quantities[line]);
+						resultCodes[line] = Result.ACTION_SUCCESSFUL;
+						continue;
+					}
 				}
-				if (product == null) {
-					result.setResultCode(Result.INVALID_PRODUCT_ID);
-					return result;
+				allValid = false;
+			}
+			if (allOrNothing) {
+				// another lane may have taken some of the stock since it was checked, so
+				// the whole batch is reserved at once (or not at all)
+				int unavailable = allValid ? reservations.reserveAll(this, products, quantities,
+						reservationTimeoutMillis()) : -1;
+				for (int line = 0; line < productIds.length; line++) {
+					if (resultCodes[line] != Result.ACTION_SUCCESSFUL) {
+						continue;
+					}
+					if (!allValid) {
+						resultCodes[line] = Result.ACTION_FAILED;
+					} else if (unavailable >= 0) {
+						resultCodes[line] = (line == unavailable) ? Result.INVALID_ORDER_QUANTITY
+								: Result.ACTION_FAILED;
+					} else {
+						addLine(products[line], products[line].getPriceVersion(), quantities[line]);
+					}
 				}
-				if (product.getStockOnHand() < request.getOrderQuantity()) {
-					result.setResultCode(Result.INVALID_ORDER_QUANTITY);
-					return result;
+			} else {
+				for (int line = 0; line < productIds.length; line++) {
+					if (resultCodes[line] == Result.ACTION_SUCCESSFUL) {
+						resultCodes[line] = scan(products[line], quantities[line]);
+					}
 				}
 			}
-			return result;
+			return resultCodes;
+		}
+
+		/**
+		 * Checks out a product, shared by all the ways of adding items.
+		 * 
+		 * @param product  - the product checked out (null if the ID was invalid)
+		 * @param quantity - quantity of the product checked out
+		 * @return result code indicating the result of the action
+		 */
+		private int scan(Product product, int quantity) {
+			return scan(product, (product == null) ? null : product.getPriceVersion(), quantity);
+		}
+
+		/**
+		 * Checks out a product at a price version read by the caller. The version
+		 * is recorded on the item, so it's known which price every line used.
+		 * 
+		 * @param product  - the product checked out (null if the ID was invalid)
+		 * @param price    - the product's price version read by the caller
+		 * @param quantity - quantity of the product checked out
+		 * @return result code indicating the result of the action
+		 */
+		private int scan(Product product, PriceVersion price, int quantity) {
+			if (!checkOutOpen) {
+				return Result.ACTION_FAILED;
+			}
+			if (product == null) {
+				return Result.INVALID_PRODUCT_ID;
+			}
+			// the quantity is reserved for this checkout; the stock on hand itself is
+			// updated only when the checkout closes
+			if (quantity < 0 || !reservations.reserve(this, product, quantity, reservationTimeoutMillis())) {
+				return Result.INVALID_ORDER_QUANTITY;
+			}
+			addLine(product, price, quantity);
+			return Result.ACTION_SUCCESSFUL;
+		}
+
+		/**
+		 * Puts an item already reserved on the checkout.
+		 * 
+		 * @param product  - the product checked out
+		 * @param price    - the product's price version the item is checked out at
+		 * @param quantity - quantity of the product checked out
+		 */
+		private void addLine(Product product, PriceVersion price, int quantity) {
+			// a repeated scan is merged into its line; only a new line needs an Item
+			if (!checkOut.mergeItem(product.getId(), quantity, price.getPrice(), price.getVersion())) {
+				checkOut.addItem(new Item(product.getName(), product.getId(), quantity, price));
+			}
+			changeLog.publish(StoreEvent.ITEM_ADDED, memberId, product.getId(), "", quantity, price.getPrice());
+		}
+
+		/**
+		 * Closes the checkout whose stock reservation expired (e.g. an abandoned
+		 * checkout). Called by the reservation reaper.
+		 * 
+		 * @param millis - current time
+		 */
+		private synchronized void expire(long millis) {
+			if (checkOutOpen && reservations.expire(this, millis)) {
+				checkOutOpen = false;
+				changeLog.publish(StoreEvent.CHECKOUT_CANCELLED, memberId, "", "", 0, 0);
+				memberId = "";
+				checkOut = null;
+			}
 		}
 
 		/**
@@ -313,18 +711,14 @@ public class GroceryStore implements Serializable {
 		 * 
 		 * @return result code indicating the result of the action
 		 */
-		public Result cancelCheckOut() {
+		public synchronized Result cancelCheckOut() {
 			Result result = new Result();
 			if (checkOutOpen) {
 				// running checkout is closed
 				checkOutOpen = false;
-				// the subtracted quantities of items checked out are returned back to
-				// stock-on-hand (the products are "re-stocked")
-				for (Iterator<Item> iterator = checkOut.getItems(); iterator.hasNext();) {
-					Item item = iterator.next();
-					Product product = productsList.searchById(item.getProductId());
-					product.setStockOnHand(product.getStockOnHand() + item.getQuantity());
-				}
+				// the quantities reserved by the items checked out become available again
+				reservations.release(this);
+				changeLog.publish(StoreEvent.CHECKOUT_CANCELLED, memberId, "", "", 0, 0);
 				// checkout is set to null for safety reasons: nothing can be added to it - a
 				// new one has to be open
 				memberId = "";
@@ -341,37 +735,53 @@ public class GroceryStore implements Serializable {
 		 * products reordered.
 		 * 
 		 * @return iterator on the list of items reordered (stored in an arrayList of
-		 *         result (part of data transfer logic))
+		 *         result (part of data transfer logic)); if the checkout isn't open
+		 *         (it was cancelled, closed, or it expired) the list holds a single
+		 *         result with code CHECKOUT_NOT_OPEN
 		 */
-		public Iterator<Result> closeCheckOut() {
+		public synchronized Iterator<Result> closeCheckOut() {
 			ArrayList<Result> list = new ArrayList<Result>();
 			if (checkOutOpen) {
 				// running checkout is closed
 				checkOutOpen = false;
-				Member member = membersList.searchById(memberId);
-				// new transaction is added to the member
-				member.addTransaction(checkOut);
-				// for loop is iterating over the list of all items checked out to find out if
-				// any product needs to be reordered
-				for (Iterator<Item> iterator = checkOut.getItems(); iterator.hasNext();) {
-					Item item = iterator.next();
-					Product product = productsList.searchById(item.getProductId());
-					Result result = new Result();
-					// next if clause is carried out if the product stock is low AND the product
-					// doesn't have a pending order
-					if (product.getStockOnHand() <= product.getReorderLevel() && !product.isOrdered()) {
-						// a new order for a product (from a vendor) is placed and all relevant info
-						// returned as a Result (for the particular product corresponding to the
-						// iteration of the for loop)
-						result = reorderProduct(product);
-						// this result with fields indicating a reordered product is added to the list
-						list.add(result);
+				// the quantities reserved by the items checked out are taken from the stock;
+				// the products that just ran low are signalled by the stock update itself
+				ArrayList<Product> lowStock = reservations.commit(this);
+				// the members and the sales aggregates are shared by all lanes, so they are
+				// updated under the store's lock
+				synchronized (GroceryStore.this) {
+					Member member = membersList.searchById(memberId);
+					// new transaction is added to the member
+					member.addTransaction(checkOut);
+					// sales aggregates are updated with the new transaction
+					recordSale(checkOut);
+					// sales velocity of every product checked out is updated
+					for (Iterator<Item> iterator = checkOut.getItems(); iterator.hasNext();) {
+						Item item = iterator.next();
+						productsList.searchById(item.getProductId()).recordSale(item.getQuantity(),
+								checkOut.getDate().getTimeInMillis());
+					}
+				}
+				changeLog.publish(StoreEvent.CHECKOUT_CLOSED, memberId, "", "", checkOut.getLineCount(),
+						checkOut.getTotalPrice());
+				// every product that ran low is reordered (if it doesn't have a pending
+				// order) and the low-stock listeners are told; the results of the reorders
+				// are added to the list
+				for (Product product : lowStock) {
+					Result reorder = lowStock(product);
+					if (reorder != null) {
+						list.add(reorder);
 					}
 				}
 				// checkout is set to null for safety reasons: nothing can be added to it - a
 				// new one has to be open
 				memberId = "";
 				checkOut = null;
+			} else {
+				// nothing was recorded; the caller mustn't take the payment
+				Result result = new Result();
+				result.setResultCode(Result.CHECKOUT_NOT_OPEN);
+				list.add(result);
 			}
 			// and iterator on the created list of reordered products is returned
 			return list.iterator();
@@ -384,6 +794,8 @@ public class GroceryStore implements Serializable {
 	 * GroceryStore's constructor. It's a singleton.
 	 */
 	private GroceryStore() {
+		startReservations();
+		startArchiving();
 	}
 
 	public static GroceryStore instance() {
@@ -401,7 +813,7 @@ public class GroceryStore implements Serializable {
 	 * @return result (data transfer logic), filled with member fields and result
 	 *         code
 	 */
-	public Result enrollMember(Request request) {
+	public synchronized Result enrollMember(Request request) {
 		Result result = new Result();
 		String memberId = "";
 		// member is added to membersList using MembersList method and request's member
@@ -412,6 +824,7 @@ public class GroceryStore implements Serializable {
 		// result is filled with relevant information (member ID and result code)
 		result.setMemberFields(membersList.searchById(memberId));
 		if (!memberId.equalsIgnoreCase("")) {
+			changeLog.publish(StoreEvent.MEMBER_ENROLLED, memberId, "", "", 0, 0);
 			result.setResultCode(Result.ACTION_SUCCESSFUL);
 		} else {
 			result.setResultCode(Result.ACTION_FAILED);
@@ -420,12 +833,13 @@ public class GroceryStore implements Serializable {
 	}
 
 	/**
-	 * Removes a specific member from the members list
+	 * Removes a specific member from the members list, along with the member's
+	 * archived transactions
 	 * 
 	 * @param request carries the relevant member fields
 	 * @return a code representing the outcome
 	 */
-	public Result removeMember(Request request) {
+	public synchronized Result removeMember(Request request) {
 		Result result = new Result();
 		Member member = membersList.searchById(request.getMemberId());
 		if (member == null) {
@@ -434,6 +848,10 @@ public class GroceryStore implements Serializable {
 		}
 		result.setMemberFields(member);
 		if (membersList.remove(request.getMemberId())) {
+			// the member's archived transactions can't be reached any more, so they are
+			// removed as well (their files are deleted once the store is saved)
+			transactionArchive.remove(member.getId());
+			changeLog.publish(StoreEvent.MEMBER_REMOVED, member.getId(), "", "", 0, 0);
 			result.setResultCode(Result.ACTION_SUCCESSFUL);
 			return result;
 		}
@@ -448,14 +866,7 @@ public class GroceryStore implements Serializable {
 	 * @return iterator on the list of results containing member fields
 	 */
 	public Iterator<Result> getAllMembers() {
-		ArrayList<Result> list = new ArrayList<Result>();
-		for (Iterator<Member> iterator = membersList.iterator(); iterator.hasNext();) {
-			Member member = iterator.next();
-			Result result = new Result();
-			result.setMemberFields(member);
-			list.add(result);
-		}
-		return list.iterator();
+		return new MappingIterator<Member, Result>(membersList.iterator(), GroceryStore::memberResult);
 	}
 
 	/**
@@ -490,14 +901,16 @@ public class GroceryStore implements Serializable {
 	 * @param request carries the relevant product fields
 	 * @return a result code that represents the outcome
 	 */
-	public Result addProduct(Request request) {
+	public synchronized Result addProduct(Request request) {
 		Result result = new Result();
 		String productId = productsList.add(new Product(request.getProductName(), request.getProductId(),
 				request.getProductCurrentPrice(), request.getProductStockOnHand(), request.getProductReorderLevel()));
 
 		if (!productId.equalsIgnoreCase("")) {
-
-			result = reorderProduct(productsList.searchById(request.getProductId()));
+			Product product = productsList.searchById(request.getProductId());
+			changeLog.publish(StoreEvent.PRODUCT_ADDED, "", product.getId(), "", product.getStockOnHand(),
+					product.getCurrentPrice());
+			result = reorderProduct(product);
 		} else {
 			result.setResultCode(Result.ACTION_FAILED);
 		}
@@ -511,14 +924,7 @@ public class GroceryStore implements Serializable {
 	 * @return iterator on the list of results containing product fields
 	 */
 	public Iterator<Result> getAllProducts() {
-		ArrayList<Result> list = new ArrayList<Result>();
-		for (Iterator<Product> iterator = productsList.iterator(); iterator.hasNext();) {
-			Product product = iterator.next();
-			Result result = new Result();
-			result.setProductFields(product);
-			list.add(result);
-		}
-		return list.iterator();
+		return new MappingIterator<Product, Result>(productsList.iterator(), GroceryStore::productResult);
 	}
 
 	/**
@@ -528,14 +934,7 @@ public class GroceryStore implements Serializable {
 	 * @return iterator for list of items in a transaction
 	 */
 	public Iterator<Result> getTransactionItems(Result result) {
-		ArrayList<Result> list = new ArrayList<Result>();
-		for (Iterator<Item> iterator = result.getTransactionsItemsList(); iterator.hasNext();) {
-			Item item = iterator.next();
-			Result itemResult = new Result();
-			itemResult.setItemFields(item);
-			list.add(itemResult);
-		}
-		return list.iterator();
+		return new MappingIterator<Item, Result>(result.getTransactionsItemsList(), GroceryStore::itemResult);
 	}
 
 	/**
@@ -545,14 +944,7 @@ public class GroceryStore implements Serializable {
 	 * @return iterator for list of orders
 	 */
 	public Iterator<Result> getAllOrders() {
-		ArrayList<Result> list = new ArrayList<Result>();
-		for (Iterator<Order> iterator = ordersList.iterator(); iterator.hasNext();) {
-			Order order = iterator.next();
-			Result result = new Result();
-			result.setOrderFields(order);
-			list.add(result);
-		}
-		return list.iterator();
+		return new MappingIterator<Order, Result>(ordersList.iterator(), GroceryStore::orderResult);
 	}
 
 	/**
@@ -560,23 +952,311 @@ public class GroceryStore implements Serializable {
 	 * dates. @ return iterator for list of transactions for that member.
 	 */
 	public Iterator<Result> getMemberTransactions(Result memberResult, Calendar startingDate, Calendar endingDate) {
-		Member member = null;
-		for (Iterator<Member> iterator = membersList.iterator(); iterator.hasNext();) {
-			member = iterator.next();
-			if (member.getId().equals(memberResult.getMemberId())) {
-				break;
+		return new MappingIterator<Transaction, Result>(
+				memberTransactions(memberResult.getMemberId(), startingDate, endingDate),
+				GroceryStore::transactionResult);
+	}
+
+	/**
+	 * Writes the receipts of all transactions of a member between given dates
+	 * straight into an output (e.g. a Writer around System.out or a file), one
+	 * after another. No Result or String is created per transaction or item.
+	 * 
+	 * @param memberId     - ID of the member
+	 * @param startingDate - first day of the period
+	 * @param endingDate   - last day of the period
+	 * @param output       - where the receipts are written
+	 * @return number of receipts written, -1 if the member doesn't exist
+	 * @throws IOException if the output can't be written to
+	 */
+	public int writeMemberReceipts(String memberId, Calendar startingDate, Calendar endingDate, Appendable output)
+			throws IOException {
+		Iterator<Transaction> transactions = memberTransactions(memberId, startingDate, endingDate);
+		if (transactions == null) {
+			return -1;
+		}
+		int count = 0;
+		while (transactions.hasNext()) {
+			if (count > 0) {
+				output.append('\n');
 			}
+			ReceiptRenderer.writeTransaction(output, transactions.next());
+			count++;
 		}
-		ArrayList<Result> list = new ArrayList<Result>();
-		for (Iterator<Transaction> iterator = member.getTransactions(startingDate, endingDate); iterator.hasNext();) {
-			Transaction transaction = iterator.next();
-			Result result = new Result();
-			result.setTransactionFields(transaction);
-			list.add(result);
+		return count;
+	}
+
+	// transactions of a member between two dates, the archived ones first; null
+	// if the member doesn't exist. They are collected under the store's lock, as
+	// closing checkouts keep adding transactions to the member.
+	private synchronized Iterator<Transaction> memberTransactions(String memberId, Calendar startingDate,
+			Calendar endingDate) {
+		Member member = membersList.searchById(memberId);
+		if (member == null) {
+			return null;
+		}
+		// the archive is read only if the dates reach some of its segments
+		ArrayList<Transaction> transactions = transactionArchive.getTransactions(member.getId(), startingDate,
+				endingDate);
+		member.getTransactions(startingDate, endingDate).forEachRemaining(transactions::add);
+		return transactions.iterator();
+	}
+
+	/**
+	 * Gets the sales of a product (units sold, revenue and number of transactions)
+	 * between two dates, both days included. The sales are read from per-day
+	 * counters, so the time taken depends on the number of days only.
+	 * 
+	 * @param productId - ID of the product
+	 * @param fromDate  - first day of the period
+	 * @param toDate    - last day of the period
+	 * @return SalesView with the product's sales, null if the product doesn't
+	 *         exist
+	 */
+	public synchronized SalesView getProductSales(String productId, Calendar fromDate, Calendar toDate) {
+		Product product = productsList.searchById(productId);
+		if (product == null) {
+			return null;
+		}
+		return new SalesView(product.getId(),
+				productSales.getSales(product.getId(), TimeBuckets.day(fromDate), TimeBuckets.day(toDate)));
+	}
+
+	/**
+	 * Estimates the number of distinct members who bought a product between two
+	 * dates, both days included. The estimate (with an error of about 3%) is
+	 * made from a small sketch per day, not from the transactions.
+	 * 
+	 * @param productId - ID of the product
+	 * @param fromDate  - first day of the period
+	 * @param toDate    - last day of the period
+	 * @return estimated number of distinct shoppers, -1 if the product doesn't
+	 *         exist
+	 */
+	public synchronized long getDistinctShoppers(String productId, Calendar fromDate, Calendar toDate) {
+		Product product = productsList.searchById(productId);
+		if (product == null) {
+			return -1;
+		}
+		return shopperCounts.estimate(product.getId(), TimeBuckets.day(fromDate), TimeBuckets.day(toDate));
+	}
+
+	/**
+	 * Merges the distinct shopper sketches of days older than
+	 * ShopperCounts.DAILY_DAYS into weekly ones and drops those older than
+	 * ShopperCounts.RETENTION_DAYS. Runs daily along with archiving.
+	 * 
+	 * @return number of sketches merged or dropped
+	 */
+	public synchronized int compactShopperCounts() {
+		return shopperCounts.compact(TimeBuckets.bucket(System.currentTimeMillis(), TimeBuckets.DAY));
+	}
+
+	/**
+	 * A private method of GroceryStore. Updates all sales aggregates with a
+	 * transaction of a closed checkout. (A cancelled checkout never gets here, so
+	 * there's nothing to take back on cancellation.)
+	 * 
+	 * @param transaction - the transaction just closed
+	 */
+	private void recordSale(Transaction transaction) {
+		productSales.record(transaction);
+		revenueRollup.record(transaction);
+		shopperCounts.record(transaction);
+		long millis = transaction.getDate().getTimeInMillis();
+		for (Iterator<Item> iterator = transaction.getItems(); iterator.hasNext();) {
+			Item item = iterator.next();
+			bestSellers.record(item.getProductId(), item.getQuantity(), millis);
+		}
+	}
+
+	/**
+	 * Gets the store's revenue between two points in time, bucket by bucket. Time
+	 * taken is proportional to the number of buckets in the range. Minute buckets
+	 * reach two days back, hour buckets ninety days.
+	 * 
+	 * @param fromDate - start of the range
+	 * @param toDate   - end of the range
+	 * @param width    - width of the buckets: TimeBuckets.MINUTE, HOUR or DAY
+	 * @return iterator on the revenue buckets in the range, in time order (empty
+	 *         buckets are left out)
+	 */
+	public synchronized Iterator<RevenueView> getRevenue(Calendar fromDate, Calendar toDate, long width) {
+		// the views are made under the lock, since closing checkouts keep adding
+		// buckets
+		return revenueRollup.getBuckets(fromDate.getTimeInMillis(), toDate.getTimeInMillis(), width).entrySet()
+				.stream().map(entry -> new RevenueView(TimeBuckets.start(entry.getKey(), width), entry.getValue()))
+				.toList().iterator();
+	}
+
+	/**
+	 * Gets the best selling products of a time window ("top N right now"). The
+	 * numbers come from bounded-memory summaries, so they are estimates: each
+	 * comes with its maximum error.
+	 * 
+	 * @param count  - number of products wanted (at most BestSellers.CAPACITY)
+	 * @param window - BestSellers.LAST_HOUR or BestSellers.TODAY
+	 * @return iterator on the best selling products, the best first
+	 */
+	public synchronized Iterator<TopProductView> getTopProducts(int count, int window) {
+		ArrayList<TopProductView> list = new ArrayList<TopProductView>();
+		for (SpaceSaving.Counter counter : bestSellers.getSummary(window, System.currentTimeMillis())
+				.top(count)) {
+			Product product = productsList.searchById(counter.getKey());
+			list.add(new TopProductView(counter.getKey(), (product == null) ? "" : product.getName(),
+					counter.getCount(), counter.getError()));
 		}
 		return list.iterator();
 	}
 
+	/**
+	 * Builds a report over the transactions of all members (revenue per member,
+	 * average basket, spending distribution) between two dates, both days
+	 * included. The members are split into fork-join tasks processed in
+	 * parallel. Archived transactions are not included.
+	 * 
+	 * @param fromDate - first day of the period, null for no lower bound
+	 * @param toDate   - last day of the period, null for no upper bound
+	 * @return the report
+	 */
+	public synchronized MemberReport getMemberReport(Calendar fromDate, Calendar toDate) {
+		long fromMillis = Long.MIN_VALUE;
+		long toMillis = Long.MAX_VALUE;
+		if (fromDate != null) {
+			fromMillis = startOfDay(fromDate);
+		}
+		if (toDate != null) {
+			toMillis = endOfDay(toDate);
+		}
+		return ForkJoinPool.commonPool().invoke(new MemberReportTask(membersList.members, 0,
+				membersList.members.size(), fromMillis, toMillis));
+	}
+
+	/**
+	 * Sets the age after which member transactions are moved from memory to the
+	 * archive on disk.
+	 * 
+	 * @param days - number of days transactions are kept in memory
+	 */
+	public void setTransactionRetentionDays(int days) {
+		transactionRetentionDays = days;
+	}
+
+	public int getTransactionRetentionDays() {
+		return transactionRetentionDays;
+	}
+
+	/**
+	 * Moves transactions older than the retention period of all members to the
+	 * archive on disk. They stay reachable through getMemberTransactions. The
+	 * members are archived one at a time, each under the store's lock, so closing
+	 * checkouts wait for a single member's segment at most.
+	 * 
+	 * @return number of transactions archived, -1 if the archive couldn't be
+	 *         written
+	 */
+	public int archiveOldTransactions() {
+		try {
+			return archiveMembers(0);
+		} catch (Exception exception) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Moves transactions older than the retention period of a single member to
+	 * the archive on disk.
+	 * 
+	 * @param memberId - ID of the member
+	 * @return number of transactions archived, -1 if the member doesn't exist or
+	 *         the archive couldn't be written
+	 */
+	public synchronized int archiveOldTransactions(String memberId) {
+		Member member = membersList.searchById(memberId);
+		if (member == null) {
+			return -1;
+		}
+		try {
+			return archive(member, 0);
+		} catch (Exception exception) {
+			return -1;
+		}
+	}
+
+	/**
+	 * A private method of GroceryStore. Archives old transactions of all members,
+	 * one member at a time under the store's lock. A member removed meanwhile is
+	 * simply not reached; a member skipped because of that is archived next time.
+	 * 
+	 * @param batchDays - see archive
+	 * @return number of transactions archived
+	 * @throws Exception for any problems writing the archive
+	 */
+	private int archiveMembers(int batchDays) throws Exception {
+		int archived = 0;
+		for (int index = 0;; index++) {
+			synchronized (this) {
+				if (index >= membersList.members.size()) {
+					return archived;
+				}
+				archived += archive(membersList.members.get(index), batchDays);
+			}
+		}
+	}
+
+	/**
+	 * A private method of GroceryStore. Archives member's transactions older than
+	 * the retention period, once the oldest of them is batchDays past it.
+	 * 
+	 * @param member    - the member whose transactions are checked
+	 * @param batchDays - days the oldest transaction must be past the retention
+	 *                  period
+	 * @return number of transactions archived
+	 * @throws Exception for any problems writing the archive
+	 */
+	private int archive(Member member, int batchDays) throws Exception {
+		Calendar oldest = member.getOldestTransactionDate();
+		if (oldest == null || !oldest.before(retentionCutoff(batchDays))) {
+			return 0;
+		}
+		return transactionArchive.archive(member, retentionCutoff(0));
+	}
+
+	/**
+	 * A private method of GroceryStore. Starts archiving old transactions in the
+	 * background, in batches of ARCHIVE_BATCH_DAYS so that every segment holds a
+	 * batch of transactions. Checkouts never write to the archive. The same task
+	 * compacts the distinct shopper sketches.
+	 */
+	private void startArchiving() {
+		scheduler().scheduleWithFixedDelay(() -> {
+			try {
+				archiveMembers(ARCHIVE_BATCH_DAYS);
+			} catch (Exception exception) {
+				// the transactions stay in memory and are archived next time; the task
+				// keeps running
+			}
+			compactShopperCounts();
+		}, ARCHIVE_PERIOD_HOURS, ARCHIVE_PERIOD_HOURS, TimeUnit.HOURS);
+	}
+
+	/**
+	 * Gets the number of archive segments (files on disk) holding transactions
+	 * of a member.
+	 * 
+	 * @param memberId - ID of the member
+	 * @return number of the segments
+	 */
+	public int getArchivedSegmentCount(String memberId) {
+		return transactionArchive.getSegmentCount(memberId);
+	}
+
+	private Calendar retentionCutoff(int extraDays) {
+		Calendar cutoff = Calendar.getInstance();
+		cutoff.add(Calendar.DATE, -(transactionRetentionDays + extraDays));
+		return cutoff;
+	}
+
 	/**
 	 * Validates product ID.
 	 * 
@@ -605,8 +1285,8 @@ public class GroceryStore implements Serializable {
 	}
 
 	/**
-	 * A private method of GroceryStore. Reorders a given product to twice the
-	 * amount of its reorder level.
+	 * A private method of GroceryStore. Reorders a given product in its order
+	 * quantity (twice the amount of its reorder level, unless tuned).
 	 * 
 	 * @param product - the product to be reordered
 	 * @return Result object with all necessary fields filled (order number, all
@@ -616,8 +1296,8 @@ public class GroceryStore implements Serializable {
 		Result result = new Result();
 		// result field orderId (that needs to be returned) is set in a one-step process
 		// along with the creation of a new order
-		result.setOrderId(ordersList
-				.add(new Order(product.getName(), product.getId(), product.getReorderLevel() * 2, orderIdCounter++)));
+		result.setOrderId(
+				ordersList.place(product.getName(), product.getId(), product.getOrderQuantity()).getOrderNumber());
 		// next if clause is carried out if the placing of the order was unsuccessful
 		if (result.getOrderId().equals("")) {
 			result.setResultCode(Result.ACTION_FAILED);
@@ -625,25 +1305,505 @@ public class GroceryStore implements Serializable {
 			// result fields for this product are filled with relevant information
 			// (reordered product's fields and quantity ordered)
 			result.setProductFields(product);
-			result.setOrderQuantity(product.getReorderLevel() * 2);
+			result.setOrderQuantity(product.getOrderQuantity());
 			// the result code is set
 			result.setResultCode(Result.ACTION_SUCCESSFUL);
 			// this product is marked as ordered (pending order)
 			product.setOrdered(true);
+			changeLog.publish(StoreEvent.PRODUCT_REORDERED, "", product.getId(), result.getOrderId(),
+					product.getOrderQuantity(), 0);
 		}
 		return result;
 	}
 
 	/**
-	 * Changes the price of a product
+	 * Gets the stream of all changes of the store's data (members enrolled and
+	 * removed, products added, price changes, checkouts, reorders and
+	 * shipments). Consumers open their own cursors on it.
 	 * 
-	 * @param request carries the relevant product fields
-	 * @return a result code that represents the outcome
+	 * @return the change log
 	 */
-	public Result changePrice(Request request) {
-		Result result = new Result();
-		Product product = productsList.searchById(request.getProductId());
+	public ChangeLog getChangeLog() {
+		return changeLog;
+	}
+
+	/**
+	 * Registers a listener told every time a product runs low.
+	 * 
+	 * @param listener - the listener
+	 */
+	public void addLowStockListener(LowStockListener listener) {
+		lowStockListeners().add(listener);
+	}
+
+	public void removeLowStockListener(LowStockListener listener) {
+		lowStockListeners().remove(listener);
+	}
+
+	private synchronized CopyOnWriteArrayList<LowStockListener> lowStockListeners() {
+		if (lowStockListeners == null) {
+			lowStockListeners = new CopyOnWriteArrayList<LowStockListener>();
+		}
+		return lowStockListeners;
+	}
+
+	/**
+	 * A private method of GroceryStore. Handles a product whose stock just fell to
+	 * or below its reorder level. The store's own reaction comes first: the
+	 * product is reordered, unless it has a pending order. Then all registered
+	 * listeners are told.
+	 * 
+	 * @param product - the product that ran low
+	 * @return Result of the reorder, null if the product wasn't reordered
+	 */
+	private Result lowStock(Product product) {
+		Result reorder = null;
+		if (!product.isOrdered()) {
+			reorder = (reorderWindowMinutes > 0) ? queueReorder(product) : reorderProduct(product);
+		}
+		if (!lowStockListeners().isEmpty()) {
+			ProductView view = new ProductView(product);
+			for (LowStockListener listener : lowStockListeners()) {
+				try {
+					listener.lowStock(view);
+				} catch (RuntimeException exception) {
+					// a failing listener doesn't stop the checkout or the other listeners
+				}
+			}
+		}
+		return reorder;
+	}
+
+	/**
+	 * A private method of GroceryStore. Puts a low product on the next purchase
+	 * order instead of ordering it right away. The product is marked as ordered
+	 * at once, so it isn't queued twice.
+	 * 
+	 * @param product - the product to be reordered
+	 * @return Result object with the product fields and quantity to be ordered;
+	 *         the order number is empty until the purchase order is placed
+	 */
+	private synchronized Result queueReorder(Product product) {
+		Result result = new Result();
+		product.setOrdered(true);
+		pendingReorders.add(product);
+		// the window starts with the first product queued
+		scheduleReorderFlush();
+		result.setProductFields(product);
+		result.setOrderQuantity(product.getOrderQuantity());
+		result.setOrderId("");
+		result.setResultCode(Result.ACTION_SUCCESSFUL);
+		return result;
+	}
+
+	private synchronized void scheduleReorderFlush() {
+		if (reorderFlush == null) {
+			reorderFlush = scheduler().schedule(this::flushReorders, reorderWindowMinutes, TimeUnit.MINUTES);
+		}
+	}
+
+	/**
+	 * Places a purchase order with all products queued for reorder, one line per
+	 * product. It's done by the background timer when the reorder window ends,
+	 * but can be called any time.
+	 * 
+	 * @return view of the purchase order placed, null if no product was queued
+	 */
+	public synchronized PurchaseOrderView flushReorders() {
+		if (reorderFlush != null) {
+			reorderFlush.cancel(false);
+			reorderFlush = null;
+		}
+		if (pendingReorders.isEmpty()) {
+			return null;
+		}
+		PurchaseOrder purchaseOrder = new PurchaseOrder(purchaseOrders.size() + 1);
+		for (Product product : pendingReorders) {
+			Order order = ordersList.place(product.getName(), product.getId(), product.getOrderQuantity());
+			purchaseOrder.addLine(order);
+			changeLog.publish(StoreEvent.PRODUCT_REORDERED, "", product.getId(), order.getOrderNumber(),
+					order.getQuantity(), 0);
+		}
+		pendingReorders.clear();
+		purchaseOrders.add(purchaseOrder);
+		return new PurchaseOrderView(purchaseOrder);
+	}
+
+	/**
+	 * Sets the reorder window: low products are collected for this long and then
+	 * ordered on a single purchase order. Setting it to 0 places the products
+	 * already queued and makes every product reorder right away again.
+	 * 
+	 * @param minutes - length of the window in minutes
+	 */
+	public void setReorderWindow(int minutes) {
+		reorderWindowMinutes = Math.max(minutes, 0);
+		if (reorderWindowMinutes == 0) {
+			flushReorders();
+		}
+	}
+
+	public int getReorderWindow() {
+		return reorderWindowMinutes;
+	}
+
+	/**
+	 * Gets the number of products waiting for the next purchase order.
+	 * 
+	 * @return number of the queued products
+	 */
+	public synchronized int getPendingReorderCount() {
+		return pendingReorders.size();
+	}
+
+	/**
+	 * Receives the shipment of a whole purchase order: every line not delivered
+	 * yet is restocked and marked as fulfilled, and its product is no longer
+	 * pending order.
+	 * 
+	 * @param purchaseOrderNumber - number of the purchase order
+	 * @return result code (ACTION_SUCCESSFUL, INVALID_ORDER_NUMBER, or
+	 *         ACTION_FAILED if the purchase order was already received)
+	 */
+	public synchronized int receivePurchaseOrder(String purchaseOrderNumber) {
+		PurchaseOrder purchaseOrder = searchPurchaseOrder(purchaseOrderNumber);
+		if (purchaseOrder == null) {
+			return Result.INVALID_ORDER_NUMBER;
+		}
+		if (!purchaseOrder.isOutstanding()) {
+			return Result.ACTION_FAILED;
+		}
+		// lines may also be processed one by one as single shipments
+		synchronized (ordersList) {
+			for (Iterator<Order> iterator = purchaseOrder.getLines(); iterator.hasNext();) {
+				Order order = iterator.next();
+				if (order.isOutstanding()) {
+					Product product = productsList.searchById(order.getProductId());
+					reservations.restock(product, order.getQuantity());
+					order.setOutstanding(false);
+					changeLog.publish(StoreEvent.SHIPMENT_PROCESSED, "", product.getId(), order.getOrderNumber(),
+							order.getQuantity(), 0);
+				}
+			}
+		}
+		return Result.ACTION_SUCCESSFUL;
+	}
+
+	/**
+	 * Gets a read-only view of a purchase order.
+	 * 
+	 * @param purchaseOrderNumber - number of the purchase order
+	 * @return view of the purchase order, null if it doesn't exist
+	 */
+	public synchronized PurchaseOrderView getPurchaseOrderView(String purchaseOrderNumber) {
+		PurchaseOrder purchaseOrder = searchPurchaseOrder(purchaseOrderNumber);
+		return (purchaseOrder == null) ? null : new PurchaseOrderView(purchaseOrder);
+	}
+
+	/**
+	 * Gets read-only views of all purchase orders.
+	 * 
+	 * @return iterator on the purchase order views, oldest first
+	 */
+	public synchronized Iterator<PurchaseOrderView> getPurchaseOrderViews() {
+		ArrayList<PurchaseOrderView> views = new ArrayList<PurchaseOrderView>();
+		new MappingIterator<PurchaseOrder, PurchaseOrderView>(purchaseOrders.iterator(), PurchaseOrderView::new)
+				.forEachRemaining(views::add);
+		return views.iterator();
+	}
+
+	private PurchaseOrder searchPurchaseOrder(String purchaseOrderNumber) {
+		for (PurchaseOrder purchaseOrder : purchaseOrders) {
+			if (purchaseOrder.getPurchaseOrderNumber().equalsIgnoreCase(purchaseOrderNumber)) {
+				return purchaseOrder;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Recomputes reorder levels and order quantities of all products from their
+	 * sales velocity, in one pass over the catalog.
+	 * 
+	 * @return number of products tuned (products without sales are left as they
+	 *         are)
+	 */
+	public synchronized int tuneReorderLevels() {
+		// products are added under the same lock, so the snapshot is complete
+		return reorderTuner.tune(new ArrayList<Product>(productsList.products), System.currentTimeMillis());
+	}
+
+	/**
+	 * Gets the settings of the reorder tuning (lead time, review period and
+	 * safety factor), which can be changed on the returned object.
+	 * 
+	 * @return the reorder tuner of the store
+	 */
+	public ReorderTuner getReorderTuner() {
+		return reorderTuner;
+	}
+
+	/**
+	 * Starts tuning the reorder levels periodically in the background. A tuning
+	 * already running is replaced.
+	 * 
+	 * @param periodMinutes - minutes between two tunings
+	 */
+	public void startReorderTuning(long periodMinutes) {
+		stopReorderTuning();
+		reorderTuning = scheduler().scheduleAtFixedRate(() -> {
+			try {
+				tuneReorderLevels();
+			} catch (RuntimeException exception) {
+				// an exception escaping the task would cancel all later tunings
+				System.err.println("Reorder tuning failed: " + exception);
+			}
+		}, periodMinutes, periodMinutes, TimeUnit.MINUTES);
+	}
+
+	/**
+	 * Stops the periodic tuning of the reorder levels.
+	 */
+	public void stopReorderTuning() {
+		if (reorderTuning != null) {
+			reorderTuning.cancel(false);
+			reorderTuning = null;
+		}
+	}
+
+	/**
+	 * Sets the time after which an idle checkout loses the stock it reserved (and
+	 * is closed).
+	 * 
+	 * @param minutes - the timeout in minutes
+	 */
+	public void setReservationTimeout(int minutes) {
+		reservationTimeoutMinutes = minutes;
+	}
+
+	public int getReservationTimeout() {
+		return reservationTimeoutMinutes;
+	}
+
+	/**
+	 * Gets the quantity of a product available for checkouts, i.e. the stock on
+	 * hand not reserved by open checkouts.
+	 * 
+	 * @param productId - ID of the product
+	 * @return the available quantity, -1 if the product doesn't exist
+	 */
+	public int getAvailableQuantity(String productId) {
+		Product product = productsList.searchById(productId);
+		return (product == null) ? -1 : reservations.available(product);
+	}
+
+	/**
+	 * A private method of GroceryStore. Creates the table of stock reservations
+	 * and starts the reaper of expired reservations. It's done as soon as the
+	 * store is created or loaded, so the lanes reserving stock never need the
+	 * store's lock.
+	 */
+	private void startReservations() {
+		reservations = new StockReservations();
+		scheduler().scheduleWithFixedDelay(this::expireReservations, 1, 1, TimeUnit.MINUTES);
+	}
+
+	private long reservationTimeoutMillis() {
+		return reservationTimeoutMinutes * 60L * 1000;
+	}
+
+	/**
+	 * A private method of GroceryStore. Releases the reservations of checkouts
+	 * idle longer than the timeout and closes those checkouts.
+	 */
+	private void expireReservations() {
+		long millis = System.currentTimeMillis();
+		for (CheckOut checkOut : reservations.expired(millis)) {
+			checkOut.expire(millis);
+		}
+	}
+
+	/**
+	 * Changes the prices of many products at once (e.g. a 3% increase of all
+	 * milk products) by a single rule. The products are repriced in parallel;
+	 * lanes keep scanning with the old or the new price version meanwhile.
+	 * 
+	 * @param productIds - IDs of the products repriced (an ID given more than
+	 *                   once is repriced once)
+	 * @param rule       - how the new prices are computed
+	 * @return summary of the repricing
+	 */
+	public RepricingSummary repriceProducts(String[] productIds, PriceRule rule) {
+		Set<Product> products = Collections.newSetFromMap(new IdentityHashMap<Product, Boolean>());
+		int notFound = 0;
+		for (String productId : productIds) {
+			Product product = productsList.searchById(productId);
+			if (product == null) {
+				notFound++;
+			} else {
+				products.add(product);
+			}
+		}
+		RepricingSummary summary = reprice(new ArrayList<Product>(products), rule);
+		summary.addNotFound(notFound);
+		return summary;
+	}
+
+	/**
+	 * Changes the prices of all products found by a query (e.g. names starting
+	 * with "Milk") by a single rule. The products are repriced in parallel.
+	 * 
+	 * @param query - selects the products repriced
+	 * @param rule  - how the new prices are computed
+	 * @return summary of the repricing
+	 */
+	public RepricingSummary repriceProducts(ProductQuery query, PriceRule rule) {
+		// the products are collected first; the price index can't change while it's
+		// being read
+		return reprice(productsList.query(query).collect(Collectors.toList()), rule);
+	}
+
+	/**
+	 * A private method of GroceryStore. Applies a price rule to products in
+	 * parallel and rebuilds the price index once for all of them.
+	 * 
+	 * @param products - the products repriced
+	 * @param rule     - how the new prices are computed
+	 * @return summary of the repricing
+	 */
+	private synchronized RepricingSummary reprice(List<Product> products, PriceRule rule) {
+		long millis = System.currentTimeMillis();
+		RepricingSummary summary = products.parallelStream().collect(RepricingSummary::new, (partial, product) -> {
+			// the old price is read and replaced under the product's lock, so a
+			// concurrent change of the price isn't lost
+			synchronized (product) {
+				double oldPrice = product.getCurrentPrice();
+				double newPrice = product.setCurrentPrice(rule.apply(oldPrice), millis).getPrice();
+				partial.addProduct(oldPrice, newPrice);
+				if (newPrice != oldPrice) {
+					changeLog.publish(StoreEvent.PRICE_CHANGED, "", product.getId(), "", 0, newPrice);
+				}
+			}
+		}, RepricingSummary::merge);
+		if (summary.getSelected() > 0) {
+			productsList.priceChanged();
+		}
+		return summary;
+	}
+
+	/**
+	 * Schedules a change of a product's price at a certain time. The change is
+	 * applied in the background when due, together with all other changes due at
+	 * the same time; a time already past makes it apply right away.
+	 * 
+	 * @param productId     - ID of the product
+	 * @param price         - the new price
+	 * @param effectiveDate - date and time the new price takes effect
+	 * @return result code (ACTION_SUCCESSFUL or INVALID_PRODUCT_ID)
+	 */
+	public int schedulePriceChange(String productId, double price, Calendar effectiveDate) {
+		Product product = productsList.searchById(productId);
+		if (product == null) {
+			return Result.INVALID_PRODUCT_ID;
+		}
+		priceSchedule.schedule(product, price, effectiveDate.getTimeInMillis());
+		armPriceTimer();
+		return Result.ACTION_SUCCESSFUL;
+	}
+
+	/**
+	 * Cancels all scheduled price changes of a product not applied yet.
+	 * 
+	 * @param productId - ID of the product
+	 * @return number of the changes cancelled, -1 if the product doesn't exist
+	 */
+	public int cancelScheduledPriceChanges(String productId) {
+		Product product = productsList.searchById(productId);
+		if (product == null) {
+			return -1;
+		}
+		int cancelled = priceSchedule.cancel(product);
+		armPriceTimer();
+		return cancelled;
+	}
+
+	/**
+	 * Gets the number of scheduled price changes not applied yet.
+	 * 
+	 * @return number of the waiting changes
+	 */
+	public int getScheduledPriceChangeCount() {
+		return priceSchedule.size();
+	}
+
+	/**
+	 * Applies all scheduled price changes that are due. It's done by the
+	 * background timer, but can be called any time.
+	 * 
+	 * @return number of the changes applied
+	 */
+	public int applyScheduledPriceChanges() {
+		int applied;
+		synchronized (this) {
+			applied = priceSchedule.applyDue(System.currentTimeMillis(), product -> changeLog
+					.publish(StoreEvent.PRICE_CHANGED, "", product.getId(), "", 0, product.getCurrentPrice()));
+			if (applied > 0) {
+				// a single rebuild of the price index for the whole batch
+				productsList.priceChanged();
+			}
+		}
+		armPriceTimer();
+		return applied;
+	}
+
+	/**
+	 * A private method of GroceryStore. Sets the background timer to the earliest
+	 * scheduled price change (or stops it if there is none).
+	 */
+	private synchronized void armPriceTimer() {
+		if (priceTimer != null) {
+			priceTimer.cancel(false);
+			priceTimer = null;
+		}
+		long next = priceSchedule.nextMillis();
+		if (next != Long.MAX_VALUE) {
+			long delay = Math.max(0, next - System.currentTimeMillis());
+			priceTimer = scheduler().schedule(this::applyScheduledPriceChanges, delay, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * A private method of GroceryStore. Gets the background thread of the store,
+	 * starting it when needed. It's a daemon thread, so it doesn't keep the
+	 * application running.
+	 * 
+	 * @return the scheduler
+	 */
+	private ScheduledExecutorService scheduler() {
+		if (scheduler == null) {
+			scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "GroceryStore scheduler");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return scheduler;
+	}
+
+	/**
+	 * Changes the price of a product
+	 * 
+	 * @param request carries the relevant product fields
+	 * @return a result code that represents the outcome
+	 */
+	public Result changePrice(Request request) {
+		Result result = new Result();
+		Product product = productsList.searchById(request.getProductId());
+		// the new price version replaces the old one at once; lanes scanning the
+		// product meanwhile never wait for it
 		product.setCurrentPrice(request.getProductCurrentPrice());
+		productsList.priceChanged();
+		changeLog.publish(StoreEvent.PRICE_CHANGED, "", product.getId(), "", 0, product.getCurrentPrice());
 
 		if (product.getCurrentPrice() == request.getProductCurrentPrice()) {
 			result.setResultCode(Result.ACTION_SUCCESSFUL);
@@ -687,32 +1847,70 @@ public class GroceryStore implements Serializable {
 	 *         product re-stocked, the order number, and result code
 	 */
 	public Result processShipment(Request request) {
-		Order order = ordersList.searchById(request.getOrderId());
-		Result result = new Result();
-		// following if clause carried out if the order does not exist OR has already
-		// been processed
-		if (order == null || !order.isOutstanding()) {
-			result.setResultCode(Result.ACTION_FAILED);
-			return result;
-		} else {
-			// product matched to order's product ID
-			Product product = productsList.searchById(order.getProductId());
-			// product on-hand quantity increased by the order quantity
-			product.setStockOnHand(product.getStockOnHand() + order.getQuantity());
-			// product set as no longer pending order
-			product.setOrdered(false);
-			// result's product fields set
-			result.setProductFields(product);
-			// order number repeated back to result
-			result.setOrderId(request.getOrderId());
-			// result code set
-			result.setResultCode(Result.ACTION_SUCCESSFUL);
-			// order set as fulfilled
-			order.setOutstanding(false);
-			return result;
+		// the order is checked and fulfilled under the lock of the order list, so it
+		// can't be fulfilled twice
+		synchronized (ordersList) {
+			Order order = ordersList.searchById(request.getOrderId());
+			Result result = new Result();
+			// following if clause carried out if the order does not exist OR has already
+			// been processed
+			if (order == null || !order.isOutstanding()) {
+				result.setResultCode(Result.ACTION_FAILED);
+				return result;
+			} else {
+				// product matched to order's product ID
+				Product product = productsList.searchById(order.getProductId());
+				// product on-hand quantity increased by the order quantity and the product
+				// set as no longer pending order (under the lock of the stock)
+				reservations.restock(product, order.getQuantity());
+				// result's product fields set
+				result.setProductFields(product);
+				// order number repeated back to result
+				result.setOrderId(request.getOrderId());
+				// result code set
+				result.setResultCode(Result.ACTION_SUCCESSFUL);
+				// order set as fulfilled
+				order.setOutstanding(false);
+				changeLog.publish(StoreEvent.SHIPMENT_PROCESSED, "", product.getId(), order.getOrderNumber(),
+						order.getQuantity(), 0);
+				return result;
+			}
 		}
 	}
 
+	/**
+	 * Processes a whole delivery of orders at once. All orders are looked up in
+	 * a single pass over the order list; every outstanding one restocks its
+	 * product, clears the product's pending order and is marked as fulfilled.
+	 * 
+	 * @param orderIds - order numbers/IDs of the orders delivered
+	 * @return result code of every order, in the same order: ACTION_SUCCESSFUL,
+	 *         INVALID_ORDER_NUMBER if the order doesn't exist, or ACTION_FAILED
+	 *         if it was already processed (also by an earlier line of the batch)
+	 */
+	public int[] processShipments(String[] orderIds) {
+		int[] resultCodes = new int[orderIds.length];
+		synchronized (ordersList) {
+			Order[] orders = ordersList.searchById(orderIds);
+			for (int line = 0; line < orderIds.length; line++) {
+				Order order = orders[line];
+				if (order == null) {
+					resultCodes[line] = Result.INVALID_ORDER_NUMBER;
+				} else if (!order.isOutstanding()) {
+					resultCodes[line] = Result.ACTION_FAILED;
+				} else {
+					Product product = productsList.searchById(order.getProductId());
+					reservations.restock(product, order.getQuantity());
+					order.setOutstanding(false);
+					changeLog.publish(StoreEvent.SHIPMENT_PROCESSED, "", product.getId(), order.getOrderNumber(),
+							order.getQuantity(), 0);
+					resultCodes[line] = Result.ACTION_SUCCESSFUL;
+				}
+			}
+		}
+		return resultCodes;
+	}
+
 	/**
 	 * Gets product information of products that start with string startsWith
 	 * 
@@ -768,6 +1966,209 @@ public class GroceryStore implements Serializable {
 		return result.iterator();
 	}
 
+	/**
+	 * Gets a read-only view of a member with the specified ID.
+	 * 
+	 * @param memberId - ID of the member needed
+	 * @return MemberView of the requested member, null if the member doesn't exist
+	 */
+	public MemberView getMemberView(String memberId) {
+		Member member = membersList.searchById(memberId);
+		return (member == null) ? null : new MemberView(member);
+	}
+
+	/**
+	 * Gets a single page of read-only views of the members on record.
+	 * 
+	 * @param offset   - position of the first member of the page
+	 * @param pageSize - maximum number of members on the page
+	 * @return iterator on the page of member views
+	 */
+	public Iterator<MemberView> getMemberViews(int offset, int pageSize) {
+		return new MappingIterator<Member, MemberView>(membersList.iterator(offset, pageSize), MemberView::new);
+	}
+
+	/**
+	 * Gets read-only views of the members whose name starts with startsWith.
+	 * 
+	 * @param startsWith is the name string
+	 * @return iterator on the matching member views
+	 */
+	public Iterator<MemberView> getMemberViews(String startsWith) {
+		String name = startsWith.toUpperCase();
+		return membersList.members.stream().filter(member -> member.getName().toUpperCase().startsWith(name))
+				.map(MemberView::new).iterator();
+	}
+
+	/**
+	 * Gets a read-only view of a product with the specified ID.
+	 * 
+	 * @param productId - ID of the product needed
+	 * @return ProductView of the requested product, null if the product doesn't
+	 *         exist
+	 */
+	public ProductView getProductView(String productId) {
+		Product product = productsList.searchById(productId);
+		return (product == null) ? null : new ProductView(product);
+	}
+
+	/**
+	 * Gets a single page of read-only views of the products on record.
+	 * 
+	 * @param offset   - position of the first product of the page
+	 * @param pageSize - maximum number of products on the page
+	 * @return iterator on the page of product views
+	 */
+	public Iterator<ProductView> getProductViews(int offset, int pageSize) {
+		return new MappingIterator<Product, ProductView>(productsList.iterator(offset, pageSize), ProductView::new);
+	}
+
+	/**
+	 * Gets read-only views of the products whose name starts with startsWith.
+	 * 
+	 * @param startsWith is the name string
+	 * @return iterator on the matching product views
+	 */
+	public Iterator<ProductView> getProductViews(String startsWith) {
+		return queryProducts(new ProductQuery().nameStartsWith(startsWith));
+	}
+
+	/**
+	 * Finds products meeting all conditions of a query, e.g. "stock at or below
+	 * reorder level and not ordered" or "price between $1 and $3".
+	 * 
+	 * @param query - the query (its getPlan tells how it was executed)
+	 * @return iterator on the views of the products found
+	 */
+	public Iterator<ProductView> queryProducts(ProductQuery query) {
+		return productsList.query(query).map(ProductView::new).iterator();
+	}
+
+	/**
+	 * Gets read-only views of all orders on record.
+	 * 
+	 * @return iterator on the order views
+	 */
+	public Iterator<OrderView> getOrderViews() {
+		return new MappingIterator<Order, OrderView>(ordersList.iterator(), OrderView::new);
+	}
+
+	/**
+	 * Gets read-only views of the lines (items) of a transaction.
+	 * 
+	 * @param transaction - Result carrying the transaction fields
+	 * @return iterator on the line views of the transaction
+	 */
+	public Iterator<LineView> getTransactionLines(Result transaction) {
+		return new MappingIterator<Item, LineView>(transaction.getTransactionsItemsList(), LineView::new);
+	}
+
+	/**
+	 * Gets the orders placed between two dates, both days included. Orders are
+	 * kept in the order they were placed, so the range is found by binary search
+	 * and the orders are streamed from it without scanning the whole list.
+	 * 
+	 * @param fromDate        - first day of the period
+	 * @param toDate          - last day of the period
+	 * @param outstandingOnly - TRUE to skip orders already fulfilled
+	 * @return iterator on the views of the orders in the period, oldest first
+	 */
+	public Iterator<OrderView> getOrderViews(Calendar fromDate, Calendar toDate, boolean outstandingOnly) {
+		return ordersList.stream(startOfDay(fromDate), endOfDay(toDate))
+				.filter(order -> !outstandingOnly || order.isOutstanding()).map(OrderView::new).iterator();
+	}
+
+	// ----------helper methods mapping entities to results (data transfer)---------
+	private static Result memberResult(Member member) {
+		Result result = new Result();
+		result.setMemberFields(member);
+		return result;
+	}
+
+	private static Result productResult(Product product) {
+		Result result = new Result();
+		result.setProductFields(product);
+		return result;
+	}
+
+	private static Result orderResult(Order order) {
+		Result result = new Result();
+		result.setOrderFields(order);
+		return result;
+	}
+
+	private static Result transactionResult(Transaction transaction) {
+		Result result = new Result();
+		result.setTransactionFields(transaction);
+		return result;
+	}
+
+	private static Result itemResult(Item item) {
+		Result result = new Result();
+		result.setItemFields(item);
+		return result;
+	}
+
+	// ----------helper methods converting dates to day boundaries---------------
+	private static long startOfDay(Calendar date) {
+		Calendar day = (Calendar) date.clone();
+		day.set(Calendar.HOUR_OF_DAY, 0);
+		day.set(Calendar.MINUTE, 0);
+		day.set(Calendar.SECOND, 0);
+		day.set(Calendar.MILLISECOND, 0);
+		return day.getTimeInMillis();
+	}
+
+	private static long endOfDay(Calendar date) {
+		Calendar day = (Calendar) date.clone();
+		day.set(Calendar.HOUR_OF_DAY, 23);
+		day.set(Calendar.MINUTE, 59);
+		day.set(Calendar.SECOND, 59);
+		day.set(Calendar.MILLISECOND, 999);
+		return day.getTimeInMillis();
+	}
+
+	/**
+	 * Restores the GroceryStore object from a backup file. Backups saved by older
+	 * versions of the application lack some fields; they get their defaults.
+	 */
+	private void readObject(ObjectInputStream input) throws IOException, ClassNotFoundException {
+		input.defaultReadObject();
+		// transient fields aren't initialized by deserialization
+		changeLog = new ChangeLog(ChangeLog.DEFAULT_CAPACITY);
+		startReservations();
+		startArchiving();
+		if (transactionArchive == null) {
+			transactionArchive = new TransactionArchive(ARCHIVE_DIRECTORY);
+			transactionRetentionDays = DEFAULT_RETENTION_DAYS;
+		}
+		if (productSales == null) {
+			productSales = new ProductSales();
+		}
+		if (bestSellers == null) {
+			bestSellers = new BestSellers();
+		}
+		if (revenueRollup == null) {
+			revenueRollup = new RevenueRollup();
+		}
+		if (reorderTuner == null) {
+			reorderTuner = new ReorderTuner();
+		}
+		if (shopperCounts == null) {
+			shopperCounts = new ShopperCounts();
+		}
+		if (reservationTimeoutMinutes == 0) {
+			reservationTimeoutMinutes = DEFAULT_RESERVATION_TIMEOUT_MINUTES;
+		}
+		if (priceSchedule == null) {
+			priceSchedule = new PriceSchedule();
+		}
+		if (pendingReorders == null) {
+			pendingReorders = new ArrayList<Product>();
+			purchaseOrders = new ArrayList<PurchaseOrder>();
+		}
+	}
+
 	/**
 	 * Saves the GroceryStore object to file BACKUP_FILE_NAME in current directory,
 	 * including static fields memberIdCounter and orderIdCounter.
@@ -781,10 +2182,17 @@ public class GroceryStore implements Serializable {
 		try {
 			FileOutputStream file = new FileOutputStream(BACKUP_FILE_NAME);
 			ObjectOutputStream object = new ObjectOutputStream(file);
-			object.writeObject(groceryStore);
-			object.writeObject(memberIdCounter);
-			object.writeObject(orderIdCounter);
-			object.close();
+			// no member is removed and no order is placed while the store is saved
+			synchronized (groceryStore) {
+				synchronized (groceryStore.ordersList) {
+					object.writeObject(groceryStore);
+					object.writeObject(memberIdCounter);
+					object.writeObject(orderIdCounter);
+				}
+				object.close();
+				// the backup no longer refers to the archive segments of removed members
+				groceryStore.transactionArchive.deleteRemoved();
+			}
 			return true;
 		} catch (Exception exception) {
 			return false;
@@ -811,6 +2219,13 @@ public class GroceryStore implements Serializable {
 				singleton = (GroceryStore) object.readObject();
 				memberIdCounter = (int) object.readObject();
 				orderIdCounter = (int) object.readObject();
+				// price changes scheduled before the backup are applied when due (or
+				// right away, if they are already past)
+				singleton.armPriceTimer();
+				// products queued for reorder before the backup get a new window
+				if (singleton.getPendingReorderCount() > 0) {
+					singleton.scheduleReorderFlush();
+				}
 			}
 			object.close();
 			return singleton;
@@ -0,0 +1,168 @@
+package store.facade;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Class HyperLogLog estimates the number of distinct keys added to it in a
+ * bounded amount of memory (1024 one-byte registers, a standard error of about
+ * 3%). Sketches can be merged, giving the estimate for the union of their
+ * keys. Most sketches only ever see a few keys, so a sketch starts sparse,
+ * keeping just the registers that were set (two bytes each), and switches to
+ * the dense array of all registers once that would take more room than a
+ * quarter of it.
+ *
+ * @author Ben Hines, Carter Clark, Chris Lara-Batencourt, Pavel Danek, Ricky
+ *         Nguyen
+ *
+ */
+public class HyperLogLog implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+	private static final int PRECISION = 10;
+	private static final int REGISTERS = 1 << PRECISION;
+	private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+	private static final int RANK_BITS = 6;
+	private static final int RANK_MASK = (1 << RANK_BITS) - 1;
+	private static final int SPARSE_LIMIT = REGISTERS / 4;
+	// all registers, null while the sketch is sparse
+	private byte[] registers;
+	// registers set so far, each as (register << RANK_BITS) | rank, sorted by
+	// register; null once the sketch is dense
+	private char[] sparse = new char[0];
+
+	/**
+	 * Adds a key to the sketch.
+	 *
+	 * @param key - the key
+	 */
+	public void add(String key) {
+		long hash = hash(key);
+		int register = (int) (hash >>> (64 - PRECISION));
+		// position of the first 1-bit in the rest of the hash
+		int rank = Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1;
+		set(register, rank);
+	}
+
+	/**
+	 * Adds all keys of another sketch to this one.
+	 *
+	 * @param other - the sketch being merged in
+	 */
+	public void merge(HyperLogLog other) {
+		if (other.registers == null) {
+			for (char entry : other.sparse) {
+				set(entry >>> RANK_BITS, entry & RANK_MASK);
+			}
+			return;
+		}
+		toDense();
+		for (int register = 0; register < REGISTERS; register++) {
+			if (other.registers[register] > registers[register]) {
+				registers[register] = other.registers[register];
+			}
+		}
+	}
+
+	/**
+	 * Estimates the number of distinct keys added.
+	 *
+	 * @return the estimate
+	 */
+	public long estimate() {
+		double sum = 0;
+		int zeros = 0;
+		if (registers == null) {
+			// every register not listed is zero
+			zeros = REGISTERS - sparse.length;
+			sum = zeros;
+			for (char entry : sparse) {
+				sum += 1.0 / (1L << (entry & RANK_MASK));
+			}
+		} else {
+			for (byte rank : registers) {
+				sum += 1.0 / (1L << rank);
+				if (rank == 0) {
+					zeros++;
+				}
+			}
+		}
+		double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+		// small numbers are estimated better by counting the empty registers
+		if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+			estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+		}
+		return Math.round(estimate);
+	}
+
+	/**
+	 * Raises a register to a rank, if it's lower.
+	 */
+	private void set(int register, int rank) {
+		if (registers != null) {
+			if (rank > registers[register]) {
+				registers[register] = (byte) rank;
+			}
+			return;
+		}
+		// binary search for the register among the sparse entries
+		int low = 0;
+		int high = sparse.length - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			int found = sparse[middle] >>> RANK_BITS;
+			if (found < register) {
+				low = middle + 1;
+			} else if (found > register) {
+				high = middle - 1;
+			} else {
+				if (rank > (sparse[middle] & RANK_MASK)) {
+					sparse[middle] = (char) ((register << RANK_BITS) | rank);
+				}
+				return;
+			}
+		}
+		if (sparse.length == SPARSE_LIMIT) {
+			toDense();
+			registers[register] = (byte) rank;
+			return;
+		}
+		char[] grown = Arrays.copyOf(sparse, sparse.length + 1);
+		System.arraycopy(sparse, low, grown, low + 1, sparse.length - low);
+		grown[low] = (char) ((register << RANK_BITS) | rank);
+		sparse = grown;
+	}
+
+	/**
+	 * Switches a sparse sketch to the array of all registers.
+	 */
+	private void toDense() {
+		if (registers != null) {
+			return;
+		}
+		registers = new byte[REGISTERS];
+		for (char entry : sparse) {
+			registers[entry >>> RANK_BITS] = (byte) (entry & RANK_MASK);
+		}
+		sparse = null;
+	}
+
+	/**
+	 * 64-bit hash of a String (FNV-1a followed by the MurmurHash3 finalizer, so
+	 * that all bits are well mixed).
+	 */
+	private static long hash(String key) {
+		long hash = 0xcbf29ce484222325L;
+		for (int index = 0; index < key.length(); index++) {
+			hash ^= key.charAt(index);
+			hash *= 0x100000001b3L;
+		}
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+
+}
@@ -0,0 +1,65 @@
+package store.facade;
+
+import store.entities.Item;
+
+/**
+ * Class LineView is a slim, read-only snapshot of a single line (item) of a
+ * transaction, returned by the read APIs of the facade.
+ * 
+ * @author Ben Hines, Carter Clark, Chris Lara-Batencourt, Pavel Danek, Ricky
+ *         Nguyen
+ *
+ */
+public final class LineView {
+
+	private final String productId;
+	private final String productName;
+	private final int quantity;
+	private final double unitPrice;
+	private final double itemPrice;
+	private final int priceVersion;
+
+	/**
+	 * The constructor. Only the back of the house creates views.
+	 * 
+	 * @param item - the Item whose fields are copied
+	 */
+	LineView(Item item) {
+		productId = item.getProductId();
+		productName = item.getName();
+		quantity = item.getQuantity();
+		unitPrice = item.getUnitPrice();
+		itemPrice = item.getItemPrice();
+		priceVersion = item.getPriceVersion();
+	}
+
+	public String getProductId() {
+		return productId;
+	}
+
+	public String getProductName() {
+		return productName;
+	}
+
+	public int getQuantity() {
+		return quantity;
+	}
+
+	public double getUnitPrice() {
+		return unitPrice;
+	}
+
+	public double getItemPrice() {
+		return itemPrice;
+	}
+
+	/**
+	 * Gets the version of the product's price the line was checked out at.
+	 * 
+	 * @return the price version, 0 if unknown
+	 */
+	public int getPriceVersion() {
+		return priceVersion;
+	}
+
+}
@@ -0,0 +1,23 @@
+package store.facade;
+
+/**
+ * Interface LowStockListener is implemented by anything that wants to know
+ * when a product runs low (alerts, dashboards...). The grocery store calls it
+ * once every time the stock of a product falls to or below its reorder level,
+ * right after the product was reordered (if it needed to be), on the thread
+ * that closed the checkout.
+ *
+ * @author Ben Hines, Carter Clark, Chris Lara-Batencourt, Pavel Danek, Ricky
+ *         Nguyen
+ *
+ */
+public interface LowStockListener {
+
+	/**
+	 * Called when the stock of a product falls to or below its reorder level.
+	 *
+	 * @param product - view of the product after the fall
+	 */
+	void lowStock(ProductView product);
+
+}
@@ -0,0 +1,44 @@
+package store.facade;
+
+import java.util.Iterator;
+import java.util.function.Function;
+
+/**
+ * Class MappingIterator lazily converts the elements of one iterator into
+ * other objects (typically entities into results of the data transfer logic).
+ * A converted object is created only when the iterator is advanced, so listing
+ * a large list never holds a converted copy of the whole list in memory.
+ *
+ * @author Ben Hines, Carter Clark, Chris Lara-Batencourt, Pavel Danek, Ricky
+ *         Nguyen
+ *
+ * @param <E> type of the source elements
+ * @param <R> type of the converted elements
+ */
+public class MappingIterator<E, R> implements Iterator<R> {
+
+	private Iterator<E> source;
+	private Function<E, R> mapper;
+
+	/**
+	 * The constructor.
+	 *
+	 * @param source - iterator over the elements being converted
+	 * @param mapper - function converting a single element
+	 */
+	public MappingIterator(Iterator<E> source, Function<E, R> mapper) {
+		this.source = source;
+		this.mapper = mapper;
+	}
+
+	@Override
+	public boolean hasNext() {
+		return source.hasNext();
+	}
+
+	@Override
+	public R next() {
+		return mapper.apply(source.next());
+	}
+
+}
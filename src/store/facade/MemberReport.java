@@ -0,0 +1,127 @@
+package store.facade;
+
+/**
+ * Class MemberReport holds cross-member aggregates of transactions: revenue,
+ * basket sizes and the distribution of spending among members. Reports of
+ * disjoint groups of members can be merged, so the members can be processed
+ * in parallel.
+ *
+ * @author Ben Hines, Carter Clark, Chris Lara-Batencourt, Pavel Danek, Ricky
+ *         Nguyen
+ *
+ */
+public class MemberReport {
+
+	// upper bounds (in dollars) of the spending distribution brackets; the last
+	// bracket is open
+	public static final double[] SPENDING_BRACKETS = { 10, 50, 100, 500, 1000 };
+
+	private long members;
+	private long activeMembers;
+	private long transactions;
+	private long items;
+	private long revenueCents;
+	private long[] spendingDistribution = new long[SPENDING_BRACKETS.length + 1];
+	private String topMemberId = "";
+	private long topMemberRevenueCents;
+
+	/**
+	 * Adds a single member to the report.
+	 *
+	 * @param memberId     - ID of the member
+	 * @param transactions - number of member's transactions
+	 * @param items        - number of units bought by the member
+	 * @param revenueCents - member's spending in cents
+	 */
+	void addMember(String memberId, long transactions, long items, long revenueCents) {
+		members++;
+		if (transactions > 0) {
+			activeMembers++;
+		}
+		this.transactions += transactions;
+		this.items += items;
+		this.revenueCents += revenueCents;
+		int bracket = 0;
+		while (bracket < SPENDING_BRACKETS.length && revenueCents >= SPENDING_BRACKETS[bracket] * 100) {
+			bracket++;
+		}
+		spendingDistribution[bracket]++;
+		if (revenueCents > topMemberRevenueCents) {
+			topMemberRevenueCents = revenueCents;
+			topMemberId = memberId;
+		}
+	}
+
+	/**
+	 * Adds another report (of a different group of members) to this one.
+	 *
+	 * @param other - the report being merged in
+	 * @return this report
+	 */
+	MemberReport merge(MemberReport other) {
+		members += other.members;
+		activeMembers += other.activeMembers;
+		transactions += other.transactions;
+		items += other.items;
+		revenueCents += other.revenueCents;
+		for (int bracket = 0; bracket < spendingDistribution.length; bracket++) {
+			spendingDistribution[bracket] += other.spendingDistribution[bracket];
+		}
+		if (other.topMemberRevenueCents > topMemberRevenueCents) {
+			topMemberRevenueCents = other.topMemberRevenueCents;
+			topMemberId = other.topMemberId;
+		}
+		return this;
+	}
+
+	public long getMembers() {
+		return members;
+	}
+
+	public long getActiveMembers() {
+		return activeMembers;
+	}
+
+	public long getTransactions() {
+		return transactions;
+	}
+
+	public long getItems() {
+		return items;
+	}
+
+	public double getRevenue() {
+		return revenueCents / 100.0;
+	}
+
+	public double getRevenuePerMember() {
+		return (members == 0) ? 0.0 : revenueCents / 100.0 / members;
+	}
+
+	public double getAverageBasketPrice() {
+		return (transactions == 0) ? 0.0 : revenueCents / 100.0 / transactions;
+	}
+
+	public double getAverageBasketSize() {
+		return (transactions == 0) ? 0.0 : (double) items / transactions;
+	}
+
+	/**
+	 * Gets the number of members in each spending bracket (see
+	 * SPENDING_BRACKETS).
+	 *
+	 * @return copy of the distribution
+	 */
+	public long[] getSpendingDistribution() {
+		return spendingDistribution.clone();
+	}
+
+	public String getTopMemberId() {
+		return topMemberId;
+	}
+
+	public double getTopMemberRevenue() {
+		return topMemberRevenueCents / 100.0;
+	}
+
+}
@@ -0,0 +1,81 @@
+package store.facade;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+import store.entities.Item;
+import store.entities.Member;
+import store.entities.Transaction;
+
+/**
+ * Class MemberReportTask builds a MemberReport over a range of members with the
+ * fork-join framework: ranges larger than THRESHOLD are split in halves, which
+ * are processed in parallel and their reports merged.
+ *
+ * @author Ben Hines, Carter Clark, Chris Lara-Batencourt, Pavel Danek, Ricky
+ *         Nguyen
+ *
+ */
+class MemberReportTask extends RecursiveTask<MemberReport> {
+
+	private static final long serialVersionUID = 1L;
+	private static final int THRESHOLD = 64;
+	private List<Member> members;
+	private int from;
+	private int to;
+	private long fromMillis;
+	private long toMillis;
+
+	/**
+	 * The constructor.
+	 *
+	 * @param members    - list of all members
+	 * @param from       - first member of the range (inclusive)
+	 * @param to         - last member of the range (exclusive)
+	 * @param fromMillis - transactions made before this time are skipped
+	 * @param toMillis   - transactions made after this time are skipped
+	 */
+	MemberReportTask(List<Member> members, int from, int to, long fromMillis, long toMillis) {
+		this.members = members;
+		this.from = from;
+		this.to = to;
+		this.fromMillis = fromMillis;
+		this.toMillis = toMillis;
+	}
+
+	@Override
+	protected MemberReport compute() {
+		if (to - from > THRESHOLD) {
+			int middle = (from + to) >>> 1;
+			MemberReportTask left = new MemberReportTask(members, from, middle, fromMillis, toMillis);
+			left.fork();
+			MemberReport right = new MemberReportTask(members, middle, to, fromMillis, toMillis).compute();
+			return left.join().merge(right);
+		}
+		MemberReport report = new MemberReport();
+		for (int index = from; index < to; index++) {
+			Member member = members.get(index);
+			long transactions = 0;
+			long items = 0;
+			long revenueCents = 0;
+			// the dates are compared as numbers; Transaction's isBetweenDates modifies
+			// its arguments, so it can't be shared by parallel tasks
+			for (Iterator<Transaction> iterator = member.getTransactions(); iterator.hasNext();) {
+				Transaction transaction = iterator.next();
+				long millis = transaction.getDate().getTimeInMillis();
+				if (millis < fromMillis || millis > toMillis) {
+					continue;
+				}
+				transactions++;
+				revenueCents += Math.round(transaction.getTotalPrice() * 100);
+				for (Iterator<Item> itemIterator = transaction.getItems(); itemIterator.hasNext();) {
+					items += itemIterator.next().getQuantity();
+				}
+			}
+			report.addMember(member.getId(), transactions, items, revenueCents);
+		}
+		return report;
+	}
+
+}
@@ -0,0 +1,99 @@
+package store.facade;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+
+import store.entities.Member;
+
+/**
+ * Class MemberView is a slim, read-only snapshot of a single member, returned
+ * by the read APIs of the facade instead of a full Result when only member
+ * fields are needed.
+ * 
+ * @author Ben Hines, Carter Clark, Chris Lara-Batencourt, Pavel Danek, Ricky
+ *         Nguyen
+ *
+ */
+public final class MemberView {
+
+	// dates are kept as times in milliseconds; NO_DATE stands for a missing one
+	private static final long NO_DATE = Long.MIN_VALUE;
+	private final String id;
+	private final String name;
+	private final String address;
+	private final String phoneNumber;
+	private final long dateJoined;
+	private final double feePaid;
+	private final double lifetimeSpend;
+	private final int visitCount;
+	private final long lastVisit;
+
+	/**
+	 * The constructor. Only the back of the house creates views.
+	 * 
+	 * @param member - the Member whose fields are copied
+	 */
+	MemberView(Member member) {
+		id = member.getId();
+		name = member.getName();
+		address = member.getAddress();
+		phoneNumber = member.getPhoneNumber();
+		dateJoined = millis(member.getDateJoined());
+		feePaid = member.getFeePaid();
+		lifetimeSpend = member.getLifetimeSpend();
+		visitCount = member.getVisitCount();
+		lastVisit = millis(member.getLastVisit());
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getAddress() {
+		return address;
+	}
+
+	public String getPhoneNumber() {
+		return phoneNumber;
+	}
+
+	public Calendar getDateJoined() {
+		return calendar(dateJoined);
+	}
+
+	public double getFeePaid() {
+		return feePaid;
+	}
+
+	public double getLifetimeSpend() {
+		return lifetimeSpend;
+	}
+
+	public int getVisitCount() {
+		return visitCount;
+	}
+
+	public Calendar getLastVisit() {
+		return calendar(lastVisit);
+	}
+
+	private static long millis(Calendar date) {
+		return (date == null) ? NO_DATE : date.getTimeInMillis();
+	}
+
+	// a new Calendar is created on every call, so the view can't be used to
+	// change the member
+	private static Calendar calendar(long millis) {
+		if (millis == NO_DATE) {
+			return null;
+		}
+		Calendar date = new GregorianCalendar();
+		date.setTimeInMillis(millis);
+		return date;
+	}
+
+}
@@ -0,0 +1,77 @@
+package store.facade;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+
+import store.entities.Order;
+
+/**
+ * Class OrderView is a slim, read-only snapshot of a single order (to a
+ * vendor), returned by the read APIs of the facade.
+ * 
+ * @author Ben Hines, Carter Clark, Chris Lara-Batencourt, Pavel Danek, Ricky
+ *         Nguyen
+ *
+ */
+public final class OrderView {
+
+	private final String orderNumber;
+	private final String productId;
+	private final String productName;
+	private final long dateOfOrder;
+	private final int quantity;
+	private final boolean isOutstanding;
+	private final String purchaseOrderNumber;
+
+	/**
+	 * The constructor. Only the back of the house creates views.
+	 * 
+	 * @param order - the Order whose fields are copied
+	 */
+	OrderView(Order order) {
+		orderNumber = order.getOrderNumber();
+		productId = order.getProductId();
+		productName = order.getProductName();
+		dateOfOrder = order.getDateOfOrder().getTimeInMillis();
+		quantity = order.getQuantity();
+		isOutstanding = order.isOutstanding();
+		purchaseOrderNumber = order.getPurchaseOrderNumber();
+	}
+
+	public String getOrderNumber() {
+		return orderNumber;
+	}
+
+	public String getProductId() {
+		return productId;
+	}
+
+	public String getProductName() {
+		return productName;
+	}
+
+	public Calendar getDateOfOrder() {
+		// a new Calendar every time, so the view can't be used to change the order
+		Calendar date = new GregorianCalendar();
+		date.setTimeInMillis(dateOfOrder);
+		return date;
+	}
+
+	public int getQuantity() {
+		return quantity;
+	}
+
+	public boolean isOutstanding() {
+		return isOutstanding;
+	}
+
+	/**
+	 * Gets the number of the purchase order the order is a line of.
+	 * 
+	 * @return the purchase order number, null if the order was placed on its own
+	 */
+	public String getPurchaseOrderNumber() {
+		return purchaseOrderNumber;
+	}
+
+}
@@ -0,0 +1,83 @@
+package store.facade;
+
+/**
+ * Class PriceRule describes how bulk repricing computes the new price of every
+ * product selected: either a fixed price or a percentage change of the current
+ * price, optionally rounded, e.g. "3% up, rounded up to end in 9 cents".
+ *
+ * @author Ben Hines, Carter Clark, Chris Lara-Batencourt, Pavel Danek, Ricky
+ *         Nguyen
+ *
+ */
+public class PriceRule {
+
+	private boolean absolute;
+	private double value;
+	// price is rounded to a multiple of roundingCents (0 means no rounding)
+	private long roundingCents;
+	// price is raised to the nearest price ending in endingCents (-1 means none)
+	private int endingCents = -1;
+
+	private PriceRule(boolean absolute, double value) {
+		this.absolute = absolute;
+		this.value = value;
+	}
+
+	/**
+	 * All products get the same price.
+	 *
+	 * @param price - the new price
+	 * @return the rule
+	 */
+	public static PriceRule absolute(double price) {
+		return new PriceRule(true, price);
+	}
+
+	/**
+	 * The price of every product changes by a percentage of its current price.
+	 *
+	 * @param percent - change in percents (negative for a discount)
+	 * @return the rule
+	 */
+	public static PriceRule percent(double percent) {
+		return new PriceRule(false, percent);
+	}
+
+	/**
+	 * Rounds the new prices to the nearest multiple of an amount (e.g. 0.05).
+	 */
+	public PriceRule roundedTo(double amount) {
+		roundingCents = Math.round(amount * 100);
+		return this;
+	}
+
+	/**
+	 * Raises the new prices to the nearest price with the given cents (e.g. 99 for
+	 * $x.99); applied after the rounding.
+	 */
+	public PriceRule endingIn(int cents) {
+		endingCents = cents;
+		return this;
+	}
+
+	/**
+	 * Computes the new price from the current one.
+	 *
+	 * @param currentPrice - current price of a product
+	 * @return the new price, never negative
+	 */
+	public double apply(double currentPrice) {
+		double price = absolute ? value : currentPrice * (1 + value / 100);
+		long cents = Math.round(price * 100);
+		if (roundingCents > 0) {
+			cents = Math.round((double) cents / roundingCents) * roundingCents;
+		}
+		if (endingCents >= 0) {
+			long dollars = Math.floorDiv(cents, 100);
+			cents = (dollars * 100 + endingCents >= cents) ? dollars * 100 + endingCents
+					: (dollars + 1) * 100 + endingCents;
+		}
+		return Math.max(cents, 0) / 100.0;
+	}
+
+}
@@ -0,0 +1,117 @@
+package store.facade;
+
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+import store.entities.Product;
+
+/**
+ * Class PriceSchedule is the timeline of price changes planned ahead (e.g. a
+ * weekly promotion starting at midnight). The changes wait in a queue ordered
+ * by their effective time; when they are due, all of them are applied in one
+ * pass. Every change holds the product itself, so applying it needs no search
+ * in the catalog.
+ *
+ * @author Ben Hines, Carter Clark, Chris Lara-Batencourt, Pavel Danek, Ricky
+ *         Nguyen
+ *
+ */
+public class PriceSchedule implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+	private PriorityQueue<Change> timeline = new PriorityQueue<Change>();
+	// changes of the same product at the same time are applied in the order they
+	// were scheduled
+	private long sequence;
+
+	/**
+	 * A single price change waiting in the timeline.
+	 */
+	private static class Change implements Comparable<Change>, Serializable {
+
+		private static final long serialVersionUID = 1L;
+		private Product product;
+		private double price;
+		private long effectiveMillis;
+		private long sequence;
+
+		private Change(Product product, double price, long effectiveMillis, long sequence) {
+			this.product = product;
+			this.price = price;
+			this.effectiveMillis = effectiveMillis;
+			this.sequence = sequence;
+		}
+
+		@Override
+		public int compareTo(Change other) {
+			if (effectiveMillis != other.effectiveMillis) {
+				return Long.compare(effectiveMillis, other.effectiveMillis);
+			}
+			return Long.compare(sequence, other.sequence);
+		}
+
+	}
+
+	/**
+	 * Adds a price change to the timeline.
+	 *
+	 * @param product         - the product whose price changes
+	 * @param price           - the new price
+	 * @param effectiveMillis - time the new price takes effect
+	 */
+	public synchronized void schedule(Product product, double price, long effectiveMillis) {
+		timeline.add(new Change(product, price, effectiveMillis, sequence++));
+	}
+
+	/**
+	 * Removes all price changes of a product still waiting in the timeline.
+	 *
+	 * @param product - the product
+	 * @return number of the changes removed
+	 */
+	public synchronized int cancel(Product product) {
+		int removed = 0;
+		for (Iterator<Change> iterator = timeline.iterator(); iterator.hasNext();) {
+			if (iterator.next().product == product) {
+				iterator.remove();
+				removed++;
+			}
+		}
+		return removed;
+	}
+
+	/**
+	 * Applies all price changes due at a certain time, earliest first. Every
+	 * product gets a new price version effective from the scheduled time.
+	 *
+	 * @param millis    - current time
+	 * @param onApplied - told about every product repriced
+	 * @return number of the changes applied
+	 */
+	public synchronized int applyDue(long millis, Consumer<Product> onApplied) {
+		int applied = 0;
+		while (!timeline.isEmpty() && timeline.peek().effectiveMillis <= millis) {
+			Change change = timeline.poll();
+			change.product.setCurrentPrice(change.price, change.effectiveMillis);
+			onApplied.accept(change.product);
+			applied++;
+		}
+		return applied;
+	}
+
+	/**
+	 * Gets the time of the earliest change waiting in the timeline.
+	 *
+	 * @return the time, Long.MAX_VALUE if no change is waiting
+	 */
+	public synchronized long nextMillis() {
+		return timeline.isEmpty() ? Long.MAX_VALUE : timeline.peek().effectiveMillis;
+	}
+
+	public synchronized int size() {
+		return timeline.size();
+	}
+
+}
@@ -0,0 +1,161 @@
+package store.facade;
+
+import store.entities.Product;
+
+/**
+ * Class ProductQuery describes a search in the catalog of products as a
+ * combination of conditions, e.g. "stock at or below reorder level and not
+ * ordered" or "price between $1 and $3 and name contains 'cola'". The grocery
+ * store picks an index matching one of the conditions (price range or name
+ * prefix) when there is one, and checks the rest of the conditions on the
+ * products found; otherwise it scans the whole catalog.
+ *
+ * @author Ben Hines, Carter Clark, Chris Lara-Batencourt, Pavel Danek, Ricky
+ *         Nguyen
+ *
+ */
+public class ProductQuery {
+
+	// plans the query can be executed with
+	public static final String PLAN_PRICE_INDEX = "PRICE_INDEX";
+	public static final String PLAN_NAME_INDEX = "NAME_INDEX";
+	public static final String PLAN_SCAN = "SCAN";
+
+	private boolean hasPriceRange;
+	private long minPriceCents;
+	private long maxPriceCents;
+	private String namePrefix;
+	private String nameContains;
+	private boolean lowStockOnly;
+	private boolean notOrderedOnly;
+	private int stockBelow = Integer.MAX_VALUE;
+	private boolean scanOnly;
+	private String plan = "";
+
+	/**
+	 * Products priced between min and max, both included.
+	 */
+	public ProductQuery priceBetween(double min, double max) {
+		hasPriceRange = true;
+		minPriceCents = Math.round(min * 100);
+		maxPriceCents = Math.round(max * 100);
+		return this;
+	}
+
+	/**
+	 * Products whose name starts with prefix (case insensitive).
+	 */
+	public ProductQuery nameStartsWith(String prefix) {
+		namePrefix = prefix.toUpperCase();
+		return this;
+	}
+
+	/**
+	 * Products whose name contains part (case insensitive).
+	 */
+	public ProductQuery nameContains(String part) {
+		nameContains = part.toUpperCase();
+		return this;
+	}
+
+	/**
+	 * Products whose stock is at or below their reorder level.
+	 */
+	public ProductQuery lowStock() {
+		lowStockOnly = true;
+		return this;
+	}
+
+	/**
+	 * Products without a pending order.
+	 */
+	public ProductQuery notOrdered() {
+		notOrderedOnly = true;
+		return this;
+	}
+
+	/**
+	 * Products with less than quantity units in stock.
+	 */
+	public ProductQuery stockBelow(int quantity) {
+		stockBelow = quantity;
+		return this;
+	}
+
+	/**
+	 * Makes the query ignore the indexes and scan the catalog (e.g. to compare
+	 * the plans).
+	 */
+	public ProductQuery scanOnly() {
+		scanOnly = true;
+		return this;
+	}
+
+	/**
+	 * Checks all conditions of the query on a product.
+	 *
+	 * @param product - the product checked
+	 * @return TRUE if the product meets all conditions, FALSE if not
+	 */
+	public boolean matches(Product product) {
+		if (hasPriceRange) {
+			long cents = Math.round(product.getCurrentPrice() * 100);
+			if (cents < minPriceCents || cents > maxPriceCents) {
+				return false;
+			}
+		}
+		if (lowStockOnly && product.getStockOnHand() > product.getReorderLevel()) {
+			return false;
+		}
+		if (notOrderedOnly && product.isOrdered()) {
+			return false;
+		}
+		if (product.getStockOnHand() >= stockBelow) {
+			return false;
+		}
+		if (namePrefix != null || nameContains != null) {
+			String name = product.getName().toUpperCase();
+			if (namePrefix != null && !name.startsWith(namePrefix)) {
+				return false;
+			}
+			if (nameContains != null && !name.contains(nameContains)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	boolean hasPriceRange() {
+		return hasPriceRange && !scanOnly;
+	}
+
+	long getMinPriceCents() {
+		return minPriceCents;
+	}
+
+	long getMaxPriceCents() {
+		return maxPriceCents;
+	}
+
+	boolean hasNamePrefix() {
+		return namePrefix != null && !scanOnly;
+	}
+
+	String getNamePrefix() {
+		return namePrefix;
+	}
+
+	void setPlan(String plan) {
+		this.plan = plan;
+	}
+
+	/**
+	 * Gets the plan the query was last executed with.
+	 *
+	 * @return one of the PLAN constants, "" if the query hasn't been executed
+	 */
+	public String getPlan() {
+		return plan;
+	}
+
+}
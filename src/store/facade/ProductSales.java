@@ -0,0 +1,65 @@
+package store.facade;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.TreeMap;
+
+import store.entities.Item;
+import store.entities.Transaction;
+
+/**
+ * Class ProductSales keeps materialized sales counters of every product,
+ * bucketed by day. The counters are updated as checkouts close, so the sales
+ * of a product in a time period are found by adding up a bucket per day
+ * instead of going through all the transactions of all the members.
+ *
+ * @author Ben Hines, Carter Clark, Chris Lara-Batencourt, Pavel Danek, Ricky
+ *         Nguyen
+ *
+ */
+public class ProductSales implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+	// product ID -> (day -> sales of the product on that day)
+	private HashMap<String, TreeMap<Long, SalesBucket>> sales = new HashMap<String, TreeMap<Long, SalesBucket>>();
+
+	/**
+	 * Adds all items of a closed transaction to the counters.
+	 *
+	 * @param transaction - the transaction being recorded
+	 */
+	public void record(Transaction transaction) {
+		long day = TimeBuckets.day(transaction.getDate());
+		// a product appearing on several lines counts as a single transaction
+		HashSet<String> counted = new HashSet<String>();
+		for (Iterator<Item> iterator = transaction.getItems(); iterator.hasNext();) {
+			Item item = iterator.next();
+			sales.computeIfAbsent(item.getProductId(), id -> new TreeMap<Long, SalesBucket>())
+					.computeIfAbsent(day, key -> new SalesBucket())
+					.add(item.getQuantity(), Math.round(item.getItemPrice() * 100),
+							counted.add(item.getProductId()) ? 1 : 0);
+		}
+	}
+
+	/**
+	 * Gets the sales of a product in a time period.
+	 *
+	 * @param productId - ID of the product
+	 * @param fromDay   - first day of the period (see TimeBuckets)
+	 * @param toDay     - last day of the period (see TimeBuckets)
+	 * @return sales of the product in the period
+	 */
+	public SalesBucket getSales(String productId, long fromDay, long toDay) {
+		SalesBucket total = new SalesBucket();
+		TreeMap<Long, SalesBucket> days = sales.get(productId);
+		if (days != null && fromDay <= toDay) {
+			for (SalesBucket bucket : days.subMap(fromDay, true, toDay, true).values()) {
+				total.add(bucket);
+			}
+		}
+		return total;
+	}
+
+}
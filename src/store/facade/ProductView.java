@@ -0,0 +1,81 @@
+package store.facade;
+
+import store.entities.PriceVersion;
+import store.entities.Product;
+
+/**
+ * Class ProductView is a slim, read-only snapshot of a single product, returned
+ * by the read APIs of the facade instead of a full Result when only product
+ * fields are needed.
+ * 
+ * @author Ben Hines, Carter Clark, Chris Lara-Batencourt, Pavel Danek, Ricky
+ *         Nguyen
+ *
+ */
+public final class ProductView {
+
+	private final String id;
+	private final String name;
+	private final double currentPrice;
+	private final int priceVersion;
+	private final long priceEffectiveMillis;
+	private final int stockOnHand;
+	private final int reorderLevel;
+	private final boolean isOrdered;
+
+	/**
+	 * The constructor. Only the back of the house creates views.
+	 * 
+	 * @param product - the Product whose fields are copied
+	 */
+	ProductView(Product product) {
+		id = product.getId();
+		name = product.getName();
+		// price and its version are taken from the same version object
+		PriceVersion price = product.getPriceVersion();
+		currentPrice = price.getPrice();
+		priceVersion = price.getVersion();
+		priceEffectiveMillis = price.getEffectiveMillis();
+		stockOnHand = product.getStockOnHand();
+		reorderLevel = product.getReorderLevel();
+		isOrdered = product.isOrdered();
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public double getCurrentPrice() {
+		return currentPrice;
+	}
+
+	public int getPriceVersion() {
+		return priceVersion;
+	}
+
+	/**
+	 * Gets the time since when the current price is in effect.
+	 * 
+	 * @return time in milliseconds, 0 if unknown (prices loaded from old backups)
+	 */
+	public long getPriceEffectiveMillis() {
+		return priceEffectiveMillis;
+	}
+
+	public int getStockOnHand() {
+		return stockOnHand;
+	}
+
+	public int getReorderLevel() {
+		return reorderLevel;
+	}
+
+	public boolean isOrdered() {
+		return isOrdered;
+	}
+
+}
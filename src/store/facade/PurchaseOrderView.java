@@ -0,0 +1,66 @@
+package store.facade;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.Iterator;
+
+import store.entities.PurchaseOrder;
+
+/**
+ * Class PurchaseOrderView is a slim, read-only snapshot of a consolidated
+ * purchase order with views of all its lines, returned by the read APIs of the
+ * facade.
+ *
+ * @author Ben Hines, Carter Clark, Chris Lara-Batencourt, Pavel Danek, Ricky
+ *         Nguyen
+ *
+ */
+public final class PurchaseOrderView {
+
+	private final String purchaseOrderNumber;
+	private final long dateOfOrder;
+	private final boolean isOutstanding;
+	private final ArrayList<OrderView> lines = new ArrayList<OrderView>();
+
+	/**
+	 * The constructor. Only the back of the house creates views.
+	 *
+	 * @param purchaseOrder - the PurchaseOrder whose fields are copied
+	 */
+	PurchaseOrderView(PurchaseOrder purchaseOrder) {
+		purchaseOrderNumber = purchaseOrder.getPurchaseOrderNumber();
+		dateOfOrder = purchaseOrder.getDateOfOrder().getTimeInMillis();
+		isOutstanding = purchaseOrder.isOutstanding();
+		new MappingIterator<>(purchaseOrder.getLines(), OrderView::new).forEachRemaining(lines::add);
+	}
+
+	public String getPurchaseOrderNumber() {
+		return purchaseOrderNumber;
+	}
+
+	public Calendar getDateOfOrder() {
+		// a new Calendar every time, so the view can't be used to change the order
+		Calendar date = new GregorianCalendar();
+		date.setTimeInMillis(dateOfOrder);
+		return date;
+	}
+
+	public boolean isOutstanding() {
+		return isOutstanding;
+	}
+
+	public int getLineCount() {
+		return lines.size();
+	}
+
+	/**
+	 * Gets the views of all lines of the purchase order.
+	 *
+	 * @return iterator on the order views
+	 */
+	public Iterator<OrderView> getLines() {
+		return lines.iterator();
+	}
+
+}
@@ -0,0 +1,70 @@
+package store.facade;
+
+import java.io.Serializable;
+
+import store.entities.Product;
+
+/**
+ * Class ReorderTuner recomputes reorder levels and order quantities of products
+ * from their sales velocity. The reorder level covers the demand during the
+ * vendor's lead time (with a safety margin); the order quantity covers the
+ * demand for a review period. Products that haven't sold yet keep the levels
+ * typed in when they were added.
+ *
+ * @author Ben Hines, Carter Clark, Chris Lara-Batencourt, Pavel Danek, Ricky
+ *         Nguyen
+ *
+ */
+public class ReorderTuner implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+	private double leadTimeDays = 3;
+	private double reviewDays = 7;
+	private double safetyFactor = 1.5;
+
+	/**
+	 * Tunes all products in a single pass.
+	 *
+	 * @param products - the products being tuned
+	 * @param millis   - current time
+	 * @return number of products whose levels were recomputed
+	 */
+	public int tune(Iterable<Product> products, long millis) {
+		int tuned = 0;
+		for (Product product : products) {
+			double velocity = product.getSalesVelocity(millis);
+			if (velocity <= 0) {
+				continue;
+			}
+			product.setReorderLevel((int) Math.ceil(velocity * leadTimeDays * safetyFactor));
+			product.setOrderQuantity(Math.max(1, (int) Math.ceil(velocity * reviewDays)));
+			tuned++;
+		}
+		return tuned;
+	}
+
+	public double getLeadTimeDays() {
+		return leadTimeDays;
+	}
+
+	public void setLeadTimeDays(double leadTimeDays) {
+		this.leadTimeDays = leadTimeDays;
+	}
+
+	public double getReviewDays() {
+		return reviewDays;
+	}
+
+	public void setReviewDays(double reviewDays) {
+		this.reviewDays = reviewDays;
+	}
+
+	public double getSafetyFactor() {
+		return safetyFactor;
+	}
+
+	public void setSafetyFactor(double safetyFactor) {
+		this.safetyFactor = safetyFactor;
+	}
+
+}
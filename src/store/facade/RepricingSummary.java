@@ -0,0 +1,95 @@
+package store.facade;
+
+/**
+ * Class RepricingSummary is the outcome of a bulk price change: how many
+ * products were selected and changed, how many IDs weren't found, and the
+ * range of the new prices. Summaries of disjoint groups of products can be
+ * merged, so the products can be repriced in parallel.
+ *
+ * @author Ben Hines, Carter Clark, Chris Lara-Batencourt, Pavel Danek, Ricky
+ *         Nguyen
+ *
+ */
+public class RepricingSummary {
+
+	private int selected;
+	private int changed;
+	private int notFound;
+	private long minPriceCents = Long.MAX_VALUE;
+	private long maxPriceCents = Long.MIN_VALUE;
+
+	/**
+	 * Adds a single repriced product to the summary.
+	 *
+	 * @param oldPrice - price before the change
+	 * @param newPrice - price after the change
+	 */
+	void addProduct(double oldPrice, double newPrice) {
+		selected++;
+		if (newPrice != oldPrice) {
+			changed++;
+		}
+		long cents = Math.round(newPrice * 100);
+		minPriceCents = Math.min(minPriceCents, cents);
+		maxPriceCents = Math.max(maxPriceCents, cents);
+	}
+
+	void addNotFound(int count) {
+		notFound += count;
+	}
+
+	/**
+	 * Adds another summary (of a different group of products) to this one.
+	 *
+	 * @param other - the summary being merged in
+	 * @return this summary
+	 */
+	RepricingSummary merge(RepricingSummary other) {
+		selected += other.selected;
+		changed += other.changed;
+		notFound += other.notFound;
+		minPriceCents = Math.min(minPriceCents, other.minPriceCents);
+		maxPriceCents = Math.max(maxPriceCents, other.maxPriceCents);
+		return this;
+	}
+
+	/**
+	 * Gets the number of products the rule was applied to.
+	 */
+	public int getSelected() {
+		return selected;
+	}
+
+	/**
+	 * Gets the number of products whose price actually changed.
+	 */
+	public int getChanged() {
+		return changed;
+	}
+
+	/**
+	 * Gets the number of product IDs given that don't exist.
+	 */
+	public int getNotFound() {
+		return notFound;
+	}
+
+	/**
+	 * Gets the lowest new price.
+	 *
+	 * @return the price, 0 if no product was selected
+	 */
+	public double getMinPrice() {
+		return (selected == 0) ? 0 : minPriceCents / 100.0;
+	}
+
+	/**
+	 * Gets the highest new price.
+	 *
+	 * @return the price, 0 if no product was selected
+	 */
+	public double getMaxPrice() {
+		return (selected == 0) ? 0 : maxPriceCents / 100.0;
+	}
+
+}
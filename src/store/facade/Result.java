@@ -21,6 +21,7 @@ public class Result extends DataTransfer {
 	public static final int INVALID_PRODUCT_NAME = 4;
 	public static final int INVALID_ORDER_NUMBER = 5;
 	public static final int INVALID_ORDER_QUANTITY = 6;
+	public static final int CHECKOUT_NOT_OPEN = 7;
 
 	private int resultCode;
 
@@ -0,0 +1,84 @@
+package store.facade;
+
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+import store.entities.Item;
+import store.entities.Transaction;
+
+/**
+ * Class RevenueRollup keeps the store's revenue, number of transactions and
+ * number of items sold in time buckets of a minute, an hour and a day. The
+ * buckets are updated as checkouts close, so revenue of any time range is
+ * found by adding up buckets instead of filtering all transactions. Minute
+ * buckets are kept for two days and hour buckets for ninety days; day buckets
+ * are kept forever.
+ *
+ * @author Ben Hines, Carter Clark, Chris Lara-Batencourt, Pavel Danek, Ricky
+ *         Nguyen
+ *
+ */
+public class RevenueRollup implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+	private static final long MINUTES_KEPT = 2 * 24 * 60;
+	private static final long HOURS_KEPT = 90 * 24;
+
+	private TreeMap<Long, SalesBucket> minutes = new TreeMap<Long, SalesBucket>();
+	private TreeMap<Long, SalesBucket> hours = new TreeMap<Long, SalesBucket>();
+	private TreeMap<Long, SalesBucket> days = new TreeMap<Long, SalesBucket>();
+
+	/**
+	 * Adds a closed transaction to the buckets.
+	 *
+	 * @param transaction - the transaction being recorded
+	 */
+	public void record(Transaction transaction) {
+		long millis = transaction.getDate().getTimeInMillis();
+		long items = 0;
+		for (Iterator<Item> iterator = transaction.getItems(); iterator.hasNext();) {
+			items += iterator.next().getQuantity();
+		}
+		long revenueCents = Math.round(transaction.getTotalPrice() * 100);
+		add(minutes, TimeBuckets.bucket(millis, TimeBuckets.MINUTE), items, revenueCents, MINUTES_KEPT);
+		add(hours, TimeBuckets.bucket(millis, TimeBuckets.HOUR), items, revenueCents, HOURS_KEPT);
+		add(days, TimeBuckets.bucket(millis, TimeBuckets.DAY), items, revenueCents, 0);
+	}
+
+	/**
+	 * Gets the buckets of a certain width in a time range.
+	 *
+	 * @param fromMillis - start of the range
+	 * @param toMillis   - end of the range
+	 * @param width      - TimeBuckets.MINUTE, HOUR or DAY
+	 * @return map of bucket numbers to buckets, in time order
+	 */
+	public Map<Long, SalesBucket> getBuckets(long fromMillis, long toMillis, long width) {
+		TreeMap<Long, SalesBucket> buckets;
+		if (width == TimeBuckets.MINUTE) {
+			buckets = minutes;
+		} else if (width == TimeBuckets.HOUR) {
+			buckets = hours;
+		} else {
+			buckets = days;
+		}
+		long from = TimeBuckets.bucket(fromMillis, width);
+		long to = TimeBuckets.bucket(toMillis, width);
+		if (from > to) {
+			return new TreeMap<Long, SalesBucket>();
+		}
+		return buckets.subMap(from, true, to, true);
+	}
+
+	private static void add(TreeMap<Long, SalesBucket> buckets, long bucket, long items, long revenueCents,
+			long kept) {
+		buckets.computeIfAbsent(bucket, key -> new SalesBucket()).add(items, revenueCents, 1);
+		// buckets older than the time kept are dropped
+		if (kept > 0) {
+			buckets.headMap(bucket - kept).clear();
+		}
+	}
+
+}
@@ -0,0 +1,53 @@
+package store.facade;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+
+/**
+ * Class RevenueView is a read-only time bucket of the store's revenue: the
+ * revenue, number of transactions and number of items sold in a minute, an
+ * hour or a day.
+ * 
+ * @author Ben Hines, Carter Clark, Chris Lara-Batencourt, Pavel Danek, Ricky
+ *         Nguyen
+ *
+ */
+public final class RevenueView {
+
+	private final long start;
+	private final double revenue;
+	private final long transactions;
+	private final long items;
+
+	/**
+	 * The constructor. Only the back of the house creates views.
+	 * 
+	 * @param startMillis - start of the bucket
+	 * @param bucket      - counters of the bucket
+	 */
+	RevenueView(long startMillis, SalesBucket bucket) {
+		start = startMillis;
+		revenue = bucket.getRevenue();
+		transactions = bucket.getTransactions();
+		items = bucket.getUnits();
+	}
+
+	public Calendar getStart() {
+		Calendar date = new GregorianCalendar();
+		date.setTimeInMillis(start);
+		return date;
+	}
+
+	public double getRevenue() {
+		return revenue;
+	}
+
+	public long getTransactions() {
+		return transactions;
+	}
+
+	public long getItems() {
+		return items;
+	}
+
+}
@@ -0,0 +1,59 @@
+package store.facade;
+
+import java.io.Serializable;
+
+/**
+ * Class SalesBucket holds running sales counters (units sold, revenue in cents
+ * and number of transactions) for a single time bucket.
+ *
+ * @author Ben Hines, Carter Clark, Chris Lara-Batencourt, Pavel Danek, Ricky
+ *         Nguyen
+ *
+ */
+public class SalesBucket implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+	private long units;
+	private long revenueCents;
+	private long transactions;
+
+	/**
+	 * Adds a sale to the bucket.
+	 *
+	 * @param units        - units sold
+	 * @param revenueCents - revenue of the sale in cents
+	 * @param transactions - number of transactions the sale counts for (0 for
+	 *                     further lines of an already counted transaction)
+	 */
+	public void add(long units, long revenueCents, long transactions) {
+		this.units += units;
+		this.revenueCents += revenueCents;
+		this.transactions += transactions;
+	}
+
+	/**
+	 * Adds all counters of another bucket to this one.
+	 *
+	 * @param bucket - the bucket being added
+	 */
+	public void add(SalesBucket bucket) {
+		add(bucket.units, bucket.revenueCents, bucket.transactions);
+	}
+
+	public long getUnits() {
+		return units;
+	}
+
+	public long getRevenueCents() {
+		return revenueCents;
+	}
+
+	public double getRevenue() {
+		return revenueCents / 100.0;
+	}
+
+	public long getTransactions() {
+		return transactions;
+	}
+
+}
@@ -0,0 +1,47 @@
+package store.facade;
+
+/**
+ * Class SalesView is a read-only summary of the sales of a single product in a
+ * time period.
+ * 
+ * @author Ben Hines, Carter Clark, Chris Lara-Batencourt, Pavel Danek, Ricky
+ *         Nguyen
+ *
+ */
+public final class SalesView {
+
+	private final String productId;
+	private final long units;
+	private final double revenue;
+	private final long transactions;
+
+	/**
+	 * The constructor. Only the back of the house creates views.
+	 * 
+	 * @param productId - ID of the product
+	 * @param sales     - the summed up sales counters
+	 */
+	SalesView(String productId, SalesBucket sales) {
+		this.productId = productId;
+		units = sales.getUnits();
+		revenue = sales.getRevenue();
+		transactions = sales.getTransactions();
+	}
+
+	public String getProductId() {
+		return productId;
+	}
+
+	public long getUnits() {
+		return units;
+	}
+
+	public double getRevenue() {
+		return revenue;
+	}
+
+	public long getTransactions() {
+		return transactions;
+	}
+
+}
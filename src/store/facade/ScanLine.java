@@ -0,0 +1,80 @@
+package store.facade;
+
+/**
+ * Class ScanLine is a reusable buffer for the scanning of items on a checkout.
+ * It is owned by the caller (e.g. a checkout lane) and overwritten with the
+ * data of the line scanned on every call of CheckOut's scanItem, so scanning
+ * doesn't have to create a new Result per item.
+ *
+ * @author Ben Hines, Carter Clark, Chris Lara-Batencourt, Pavel Danek, Ricky
+ *         Nguyen
+ *
+ */
+public class ScanLine {
+
+	private String productId;
+	private String productName;
+	private int quantity;
+	private double unitPrice;
+	private double linePrice;
+	private double totalPrice;
+
+	public ScanLine() {
+		clear();
+	}
+
+	/**
+	 * Resets all fields to "" or zero.
+	 */
+	public void clear() {
+		productId = "";
+		productName = "";
+		quantity = 0;
+		unitPrice = 0.0;
+		linePrice = 0.0;
+		totalPrice = 0.0;
+	}
+
+	/**
+	 * Fills the buffer with the line just scanned (to be used only by the back of
+	 * the house).
+	 */
+	void set(String productId, String productName, int quantity, double unitPrice, double totalPrice) {
+		this.productId = productId;
+		this.productName = productName;
+		this.quantity = quantity;
+		this.unitPrice = unitPrice;
+		this.linePrice = quantity * unitPrice;
+		this.totalPrice = totalPrice;
+	}
+
+	public String getProductId() {
+		return productId;
+	}
+
+	public String getProductName() {
+		return productName;
+	}
+
+	public int getQuantity() {
+		return quantity;
+	}
+
+	public double getUnitPrice() {
+		return unitPrice;
+	}
+
+	public double getLinePrice() {
+		return linePrice;
+	}
+
+	/**
+	 * Gets the running total of the checkout after the line was scanned.
+	 *
+	 * @return checkout total
+	 */
+	public double getTotalPrice() {
+		return totalPrice;
+	}
+
+}
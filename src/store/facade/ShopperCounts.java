@@ -0,0 +1,136 @@
+package store.facade;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import store.entities.Item;
+import store.entities.Transaction;
+
+/**
+ * Class ShopperCounts keeps a HyperLogLog sketch of the members who bought each
+ * product, one per day, so the number of distinct shoppers of a product in a
+ * time period is estimated by merging a sketch per day instead of
+ * de-duplicating member IDs across all transactions. Days older than
+ * DAILY_DAYS are merged into one sketch per week, and weeks older than
+ * RETENTION_DAYS are dropped, so a period reaching that far back is counted in
+ * whole weeks, and only within the retention period.
+ *
+ * @author Ben Hines, Carter Clark, Chris Lara-Batencourt, Pavel Danek, Ricky
+ *         Nguyen
+ *
+ */
+public class ShopperCounts implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+	public static final int DAILY_DAYS = 35;
+	public static final int RETENTION_DAYS = 2 * 365;
+	private static final int WEEK_DAYS = 7;
+	// product ID -> (day -> shoppers of the product on that day)
+	private HashMap<String, TreeMap<Long, HyperLogLog>> shoppers = new HashMap<String, TreeMap<Long, HyperLogLog>>();
+	// product ID -> (first day of the week -> shoppers of the product that week)
+	private HashMap<String, TreeMap<Long, HyperLogLog>> weeks = new HashMap<String, TreeMap<Long, HyperLogLog>>();
+
+	/**
+	 * Adds the member of a closed transaction to the sketches of all products
+	 * bought.
+	 *
+	 * @param transaction - the transaction being recorded
+	 */
+	public void record(Transaction transaction) {
+		if (transaction.getMemberId() == null) {
+			return;
+		}
+		long day = TimeBuckets.day(transaction.getDate());
+		for (Iterator<Item> iterator = transaction.getItems(); iterator.hasNext();) {
+			shoppers.computeIfAbsent(iterator.next().getProductId(), id -> new TreeMap<Long, HyperLogLog>())
+					.computeIfAbsent(day, key -> new HyperLogLog()).add(transaction.getMemberId());
+		}
+	}
+
+	/**
+	 * Estimates the number of distinct members who bought a product in a time
+	 * period.
+	 *
+	 * @param productId - ID of the product
+	 * @param fromDay   - first day of the period (see TimeBuckets)
+	 * @param toDay     - last day of the period (see TimeBuckets)
+	 * @return estimated number of distinct shoppers
+	 */
+	public long estimate(String productId, long fromDay, long toDay) {
+		if (fromDay > toDay) {
+			return 0;
+		}
+		HyperLogLog union = new HyperLogLog();
+		TreeMap<Long, HyperLogLog> days = shoppers.get(productId);
+		if (days != null) {
+			for (HyperLogLog sketch : days.subMap(fromDay, true, toDay, true).values()) {
+				union.merge(sketch);
+			}
+		}
+		TreeMap<Long, HyperLogLog> weekly = weeks == null ? null : weeks.get(productId);
+		if (weekly != null) {
+			for (HyperLogLog sketch : weekly.subMap(week(fromDay), true, toDay, true).values()) {
+				union.merge(sketch);
+			}
+		}
+		return union.estimate();
+	}
+
+	/**
+	 * Merges the daily sketches of days older than DAILY_DAYS into weekly ones
+	 * and drops the weekly sketches of weeks older than RETENTION_DAYS.
+	 *
+	 * @param today - the current day (see TimeBuckets)
+	 * @return number of sketches merged or dropped
+	 */
+	public int compact(long today) {
+		if (weeks == null) {
+			// backups saved by older versions have no weekly sketches
+			weeks = new HashMap<String, TreeMap<Long, HyperLogLog>>();
+		}
+		int compacted = 0;
+		for (Iterator<Map.Entry<String, TreeMap<Long, HyperLogLog>>> products = shoppers.entrySet()
+				.iterator(); products.hasNext();) {
+			Map.Entry<String, TreeMap<Long, HyperLogLog>> product = products.next();
+			NavigableMap<Long, HyperLogLog> old = product.getValue().headMap(today - DAILY_DAYS, false);
+			if (old.isEmpty()) {
+				continue;
+			}
+			TreeMap<Long, HyperLogLog> weekly = weeks.computeIfAbsent(product.getKey(),
+					id -> new TreeMap<Long, HyperLogLog>());
+			for (Map.Entry<Long, HyperLogLog> day : old.entrySet()) {
+				HyperLogLog sketch = weekly.putIfAbsent(week(day.getKey()), day.getValue());
+				if (sketch != null) {
+					sketch.merge(day.getValue());
+				}
+				compacted++;
+			}
+			old.clear();
+			if (product.getValue().isEmpty()) {
+				products.remove();
+			}
+		}
+		for (Iterator<TreeMap<Long, HyperLogLog>> products = weeks.values().iterator(); products.hasNext();) {
+			TreeMap<Long, HyperLogLog> weekly = products.next();
+			NavigableMap<Long, HyperLogLog> expired = weekly.headMap(week(today - RETENTION_DAYS), false);
+			compacted += expired.size();
+			expired.clear();
+			if (weekly.isEmpty()) {
+				products.remove();
+			}
+		}
+		return compacted;
+	}
+
+	/**
+	 * Gets the first day of the week a day falls into.
+	 */
+	private static long week(long day) {
+		return day - Math.floorMod(day, WEEK_DAYS);
+	}
+
+}
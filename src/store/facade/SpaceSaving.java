@@ -0,0 +1,183 @@
+package store.facade;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Class SpaceSaving is a bounded-memory summary of the most frequent keys of a
+ * stream (the Space-Saving algorithm). It keeps at most capacity counters; when
+ * a new key arrives and all counters are taken, the smallest counter is handed
+ * over to the new key. Every count is an overestimate of the true count by at
+ * most its error, which never exceeds total/capacity.
+ *
+ * @author Ben Hines, Carter Clark, Chris Lara-Batencourt, Pavel Danek, Ricky
+ *         Nguyen
+ *
+ */
+public class SpaceSaving implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+	private int capacity;
+	private HashMap<String, Counter> counters = new HashMap<String, Counter>();
+	// min-heap of the counters, the smallest count on top
+	private Counter[] heap;
+	private int size;
+	private long total;
+
+	/**
+	 * A single counter of the summary.
+	 */
+	public static class Counter implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+		private String key;
+		private long count;
+		private long error;
+		private int position;
+
+		private Counter(String key, long count, long error) {
+			this.key = key;
+			this.count = count;
+			this.error = error;
+		}
+
+		public String getKey() {
+			return key;
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+		public long getError() {
+			return error;
+		}
+
+	}
+
+	/**
+	 * The constructor.
+	 *
+	 * @param capacity - maximum number of counters kept
+	 */
+	public SpaceSaving(int capacity) {
+		this.capacity = capacity;
+		heap = new Counter[capacity];
+	}
+
+	/**
+	 * Adds an occurrence of a key to the summary, in time logarithmic in the
+	 * (fixed) capacity.
+	 *
+	 * @param key    - the key
+	 * @param weight - weight of the occurrence (e.g. units sold)
+	 */
+	public void offer(String key, long weight) {
+		total += weight;
+		Counter counter = counters.get(key);
+		if (counter != null) {
+			counter.count += weight;
+			siftDown(counter.position);
+		} else if (size < capacity) {
+			counter = new Counter(key, weight, 0);
+			counters.put(key, counter);
+			counter.position = size;
+			heap[size++] = counter;
+			siftUp(counter.position);
+		} else {
+			// the smallest counter is taken over by the new key
+			counter = heap[0];
+			counters.remove(counter.key);
+			counter.key = key;
+			counter.error = counter.count;
+			counter.count += weight;
+			counters.put(key, counter);
+			siftDown(0);
+		}
+	}
+
+	/**
+	 * Adds all counters of another summary to this one (used to merge the
+	 * summaries of adjacent time windows). Counts and errors are added up, so
+	 * they remain upper bounds.
+	 *
+	 * @param other - the summary being merged in
+	 */
+	public void merge(SpaceSaving other) {
+		for (int index = 0; index < other.size; index++) {
+			Counter counter = other.heap[index];
+			offer(counter.key, counter.count);
+			counters.get(counter.key).error += counter.error;
+		}
+	}
+
+	/**
+	 * Gets the keys with the highest counts.
+	 *
+	 * @param count - number of keys wanted
+	 * @return list of at most count counters, the highest first
+	 */
+	public ArrayList<Counter> top(int count) {
+		Counter[] sorted = Arrays.copyOf(heap, size);
+		Arrays.sort(sorted, (first, second) -> Long.compare(second.count, first.count));
+		ArrayList<Counter> output = new ArrayList<Counter>();
+		for (int index = 0; index < Math.min(count, sorted.length); index++) {
+			output.add(sorted[index]);
+		}
+		return output;
+	}
+
+	/**
+	 * Gets the total weight of all occurrences offered.
+	 *
+	 * @return total weight
+	 */
+	public long getTotal() {
+		return total;
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	private void siftUp(int position) {
+		while (position > 0) {
+			int parent = (position - 1) / 2;
+			if (heap[parent].count <= heap[position].count) {
+				break;
+			}
+			swap(parent, position);
+			position = parent;
+		}
+	}
+
+	private void siftDown(int position) {
+		while (true) {
+			int smallest = position;
+			int left = 2 * position + 1;
+			int right = left + 1;
+			if (left < size && heap[left].count < heap[smallest].count) {
+				smallest = left;
+			}
+			if (right < size && heap[right].count < heap[smallest].count) {
+				smallest = right;
+			}
+			if (smallest == position) {
+				return;
+			}
+			swap(smallest, position);
+			position = smallest;
+		}
+	}
+
+	private void swap(int first, int second) {
+		Counter counter = heap[first];
+		heap[first] = heap[second];
+		heap[second] = counter;
+		heap[first].position = first;
+		heap[second].position = second;
+	}
+
+}
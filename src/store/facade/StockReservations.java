@@ -0,0 +1,185 @@
+package store.facade;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import store.entities.Product;
+import store.facade.GroceryStore.CheckOut;
+
+/**
+ * Class StockReservations holds the stock reserved by open checkouts. Scanning
+ * an item only reserves the product; the stock on hand is decreased when the
+ * checkout closes. A reservation expires when its checkout hasn't scanned
+ * anything for a while, so an abandoned checkout doesn't hold the stock
+ * forever. Releasing a checkout's reservation takes time proportional to its
+ * lines only.
+ *
+ * Every change of the stock on hand (sales and deliveries) is made here, under
+ * the same lock as the reservations, so no update of the stock is lost.
+ *
+ * @author Ben Hines, Carter Clark, Chris Lara-Batencourt, Pavel Danek, Ricky
+ *         Nguyen
+ *
+ */
+public class StockReservations {
+
+	// reservation of every open checkout
+	private HashMap<CheckOut, Reservation> reservations = new HashMap<CheckOut, Reservation>();
+	// total quantity reserved of every product
+	private IdentityHashMap<Product, Integer> reserved = new IdentityHashMap<Product, Integer>();
+
+	/**
+	 * Products and quantities reserved by a single checkout.
+	 */
+	private static class Reservation {
+
+		private IdentityHashMap<Product, Integer> lines = new IdentityHashMap<Product, Integer>();
+		private long expiresAt;
+
+	}
+
+	/**
+	 * Gets the quantity of a product not reserved by any checkout.
+	 *
+	 * @param product - the product
+	 * @return stock on hand minus the reserved quantity
+	 */
+	public synchronized int available(Product product) {
+		return product.getStockOnHand() - reserved.getOrDefault(product, 0);
+	}
+
+	/**
+	 * Reserves a quantity of a product for a checkout, if it's available. The
+	 * checkout's reservation is extended to expire timeoutMillis from now.
+	 *
+	 * @param checkOut      - the checkout reserving
+	 * @param product       - the product reserved
+	 * @param quantity      - the quantity reserved
+	 * @param timeoutMillis - time after which an idle reservation expires
+	 * @return TRUE if reserved, FALSE if not enough of the product is available
+	 */
+	public synchronized boolean reserve(CheckOut checkOut, Product product, int quantity, long timeoutMillis) {
+		if (available(product) < quantity) {
+			return false;
+		}
+		Reservation reservation = reservations.computeIfAbsent(checkOut, key -> new Reservation());
+		reservation.lines.merge(product, quantity, Integer::sum);
+		reservation.expiresAt = System.currentTimeMillis() + timeoutMillis;
+		reserved.merge(product, quantity, Integer::sum);
+		return true;
+	}
+
+	/**
+	 * Reserves a whole batch of products for a checkout at once: either all
+	 * quantities are available and all are reserved, or nothing is reserved.
+	 * Quantities of the same product are added up.
+	 *
+	 * @param checkOut      - the checkout reserving
+	 * @param products      - the products reserved
+	 * @param quantities    - the quantities reserved, in the same order
+	 * @param timeoutMillis - time after which an idle reservation expires
+	 * @return -1 if the batch was reserved, otherwise the index of the first line
+	 *         that isn't available
+	 */
+	public synchronized int reserveAll(CheckOut checkOut, Product[] products, int[] quantities,
+			long timeoutMillis) {
+		IdentityHashMap<Product, Integer> wanted = new IdentityHashMap<Product, Integer>();
+		for (int line = 0; line < products.length; line++) {
+			int total = wanted.merge(products[line], quantities[line], Integer::sum);
+			if (available(products[line]) < total) {
+				return line;
+			}
+		}
+		for (int line = 0; line < products.length; line++) {
+			reserve(checkOut, products[line], quantities[line], timeoutMillis);
+		}
+		return -1;
+	}
+
+	/**
+	 * Releases the reservation of a checkout (cancelled or expired); the products
+	 * become available again.
+	 *
+	 * @param checkOut - the checkout
+	 */
+	public synchronized void release(CheckOut checkOut) {
+		Reservation reservation = reservations.remove(checkOut);
+		if (reservation != null) {
+			for (Map.Entry<Product, Integer> line : reservation.lines.entrySet()) {
+				reserved.computeIfPresent(line.getKey(), (product, quantity) -> {
+					int left = quantity - line.getValue();
+					return (left > 0) ? left : null;
+				});
+			}
+		}
+	}
+
+	/**
+	 * Commits the reservation of a closed checkout into the stock: the stock on
+	 * hand of every product reserved is decreased by the quantity reserved.
+	 *
+	 * @param checkOut - the checkout
+	 * @return list of the products whose stock just fell to or below their
+	 *         reorder level (as signalled by the products)
+	 */
+	public synchronized ArrayList<Product> commit(CheckOut checkOut) {
+		ArrayList<Product> lowStock = new ArrayList<Product>();
+		Reservation reservation = reservations.get(checkOut);
+		if (reservation != null) {
+			release(checkOut);
+			for (Map.Entry<Product, Integer> line : reservation.lines.entrySet()) {
+				if (line.getKey().setStockOnHand(line.getKey().getStockOnHand() - line.getValue())) {
+					lowStock.add(line.getKey());
+				}
+			}
+		}
+		return lowStock;
+	}
+
+	/**
+	 * Adds a delivery of a pending order to the stock on hand of a product; the
+	 * product no longer has a pending order.
+	 *
+	 * @param product  - the product delivered
+	 * @param quantity - the quantity delivered
+	 */
+	public synchronized void restock(Product product, int quantity) {
+		product.setStockOnHand(product.getStockOnHand() + quantity);
+		product.setOrdered(false);
+	}
+
+	/**
+	 * Gets the checkouts whose reservations expired.
+	 *
+	 * @param millis - current time
+	 * @return list of the checkouts
+	 */
+	public synchronized ArrayList<CheckOut> expired(long millis) {
+		ArrayList<CheckOut> expired = new ArrayList<CheckOut>();
+		for (Map.Entry<CheckOut, Reservation> entry : reservations.entrySet()) {
+			if (entry.getValue().expiresAt <= millis) {
+				expired.add(entry.getKey());
+			}
+		}
+		return expired;
+	}
+
+	/**
+	 * Releases the reservation of a checkout, if it's (still) expired.
+	 *
+	 * @param checkOut - the checkout
+	 * @param millis   - current time
+	 * @return TRUE if the reservation expired and was released, FALSE if not
+	 */
+	public synchronized boolean expire(CheckOut checkOut, long millis) {
+		Reservation reservation = reservations.get(checkOut);
+		if (reservation == null || reservation.expiresAt > millis) {
+			return false;
+		}
+		release(checkOut);
+		return true;
+	}
+
+}
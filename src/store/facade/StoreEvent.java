@@ -0,0 +1,111 @@
+package store.facade;
+
+/**
+ * Class StoreEvent describes a single change of the grocery store's data
+ * (change data capture). The change log keeps a fixed number of StoreEvent
+ * slots and overwrites them over and over; a consumer reads events into a
+ * StoreEvent of its own, which it can reuse for every event read, so reading
+ * the log creates no objects.
+ *
+ * Fields not relevant to a type of event are "" or zero.
+ *
+ * @author Ben Hines, Carter Clark, Chris Lara-Batencourt, Pavel Danek, Ricky
+ *         Nguyen
+ *
+ */
+public class StoreEvent {
+
+	// types of events: memberId
+	public static final int MEMBER_ENROLLED = 1;
+	public static final int MEMBER_REMOVED = 2;
+	// productId, quantity (stock on hand), price
+	public static final int PRODUCT_ADDED = 3;
+	// productId, price (the new one)
+	public static final int PRICE_CHANGED = 4;
+	// memberId, productId, quantity, price (unit price)
+	public static final int ITEM_ADDED = 5;
+	// memberId
+	public static final int CHECKOUT_CANCELLED = 6;
+	// memberId, quantity (number of lines), price (total)
+	public static final int CHECKOUT_CLOSED = 7;
+	// productId, orderId, quantity (quantity ordered)
+	public static final int PRODUCT_REORDERED = 8;
+	// productId, orderId, quantity (quantity delivered)
+	public static final int SHIPMENT_PROCESSED = 9;
+
+	private long sequence;
+	private long millis;
+	private int type;
+	private String memberId = "";
+	private String productId = "";
+	private String orderId = "";
+	private int quantity;
+	private double price;
+
+	/**
+	 * Fills the event (to be used only by the back of the house).
+	 */
+	void set(long sequence, long millis, int type, String memberId, String productId, String orderId, int quantity,
+			double price) {
+		this.sequence = sequence;
+		this.millis = millis;
+		this.type = type;
+		this.memberId = memberId;
+		this.productId = productId;
+		this.orderId = orderId;
+		this.quantity = quantity;
+		this.price = price;
+	}
+
+	/**
+	 * Copies all fields of another event into this one.
+	 */
+	void copy(StoreEvent other) {
+		set(other.sequence, other.millis, other.type, other.memberId, other.productId, other.orderId,
+				other.quantity, other.price);
+	}
+
+	/**
+	 * Gets the number of the event. Events are numbered from 0 in the order they
+	 * were published.
+	 *
+	 * @return the sequence number
+	 */
+	public long getSequence() {
+		return sequence;
+	}
+
+	public long getMillis() {
+		return millis;
+	}
+
+	/**
+	 * Gets the type of the event.
+	 *
+	 * @return one of the event type constants
+	 */
+	public int getType() {
+		return type;
+	}
+
+	public String getMemberId() {
+		return memberId;
+	}
+
+	public String getProductId() {
+		return productId;
+	}
+
+	public String getOrderId() {
+		return orderId;
+	}
+
+	public int getQuantity() {
+		return quantity;
+	}
+
+	public double getPrice() {
+		return price;
+	}
+
+}
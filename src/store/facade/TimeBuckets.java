@@ -0,0 +1,55 @@
+package store.facade;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+
+/**
+ * Class TimeBuckets converts points in time to numbers of time buckets
+ * (minutes, hours or days, counted in local time), used as keys of the
+ * aggregates the grocery store keeps about its sales.
+ *
+ * @author Ben Hines, Carter Clark, Chris Lara-Batencourt, Pavel Danek, Ricky
+ *         Nguyen
+ *
+ */
+public final class TimeBuckets {
+
+	public static final long MINUTE = 60L * 1000;
+	public static final long HOUR = 60 * MINUTE;
+	public static final long DAY = 24 * HOUR;
+
+	private TimeBuckets() {
+	}
+
+	/**
+	 * Gets the bucket a point in time falls into.
+	 *
+	 * @param millis - the point in time
+	 * @param width  - width of the bucket (MINUTE, HOUR or DAY)
+	 * @return number of the bucket
+	 */
+	public static long bucket(long millis, long width) {
+		return Math.floorDiv(millis + TimeZone.getDefault().getOffset(millis), width);
+	}
+
+	/**
+	 * Gets the point in time a bucket starts at.
+	 *
+	 * @param bucket - number of the bucket
+	 * @param width  - width of the bucket (MINUTE, HOUR or DAY)
+	 * @return start of the bucket in milliseconds
+	 */
+	public static long start(long bucket, long width) {
+		long local = bucket * width;
+		return local - TimeZone.getDefault().getOffset(local);
+	}
+
+	public static long bucket(Calendar date, long width) {
+		return bucket(date.getTimeInMillis(), width);
+	}
+
+	public static long day(Calendar date) {
+		return bucket(date.getTimeInMillis(), DAY);
+	}
+
+}
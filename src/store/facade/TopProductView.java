@@ -0,0 +1,45 @@
+package store.facade;
+
+/**
+ * Class TopProductView is a read-only entry of a best sellers board: a product
+ * with the estimated number of units sold and the maximum error of the
+ * estimate (the true number is between units - error and units).
+ * 
+ * @author Ben Hines, Carter Clark, Chris Lara-Batencourt, Pavel Danek, Ricky
+ *         Nguyen
+ *
+ */
+public final class TopProductView {
+
+	private final String productId;
+	private final String productName;
+	private final long units;
+	private final long error;
+
+	/**
+	 * The constructor. Only the back of the house creates views.
+	 */
+	TopProductView(String productId, String productName, long units, long error) {
+		this.productId = productId;
+		this.productName = productName;
+		this.units = units;
+		this.error = error;
+	}
+
+	public String getProductId() {
+		return productId;
+	}
+
+	public String getProductName() {
+		return productName;
+	}
+
+	public long getUnits() {
+		return units;
+	}
+
+	public long getError() {
+		return error;
+	}
+
+}
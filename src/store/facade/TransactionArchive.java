@@ -0,0 +1,211 @@
+package store.facade;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import store.entities.Member;
+import store.entities.Transaction;
+
+/**
+ * Class TransactionArchive is the cold storage tier for old transactions of
+ * members. Transactions moved out of a Member are written to compressed segment
+ * files on disk; only a small description of every segment (member ID, time
+ * span and file name) is kept in memory and saved with the grocery store, so
+ * the archived transactions can still be found by date.
+ *
+ * @author Ben Hines, Carter Clark, Chris Lara-Batencourt, Pavel Danek, Ricky
+ *         Nguyen
+ *
+ */
+public class TransactionArchive implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+	private String directory;
+	// segments of every member, in the order they were written
+	private HashMap<String, ArrayList<Segment>> segments = new HashMap<String, ArrayList<Segment>>();
+	private int segmentCounter = 1;
+	// files of segments removed since the last save; the last backup still refers
+	// to them, so they are deleted only once the store is saved again
+	private transient ArrayList<String> removedFiles;
+
+	/**
+	 * Description of a single segment file.
+	 */
+	private static class Segment implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+		private String fileName;
+		private long fromMillis;
+		private long toMillis;
+
+		private Segment(String fileName, long fromMillis, long toMillis) {
+			this.fileName = fileName;
+			this.fromMillis = fromMillis;
+			this.toMillis = toMillis;
+		}
+
+	}
+
+	/**
+	 * The constructor.
+	 *
+	 * @param directory - directory the segment files are written to
+	 */
+	public TransactionArchive(String directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Moves all member's transactions made before a certain date into a new
+	 * segment on disk.
+	 *
+	 * @param member - the member whose transactions are archived
+	 * @param cutoff - transactions made before this date are archived
+	 * @return number of transactions archived
+	 * @throws Exception for any problems writing the segment (the transactions
+	 *                   are then left in the member)
+	 */
+	public int archive(Member member, Calendar cutoff) throws Exception {
+		ArrayList<Transaction> old = member.removeTransactionsBefore(cutoff);
+		if (old.isEmpty()) {
+			return 0;
+		}
+		long fromMillis = Long.MAX_VALUE;
+		long toMillis = Long.MIN_VALUE;
+		for (Transaction transaction : old) {
+			fromMillis = Math.min(fromMillis, transaction.getDate().getTimeInMillis());
+			toMillis = Math.max(toMillis, transaction.getDate().getTimeInMillis());
+		}
+		String fileName = member.getId() + "-" + segmentCounter + ".seg";
+		File file = new File(directory, fileName);
+		try {
+			new File(directory).mkdirs();
+			try (ObjectOutputStream object = new ObjectOutputStream(
+					new GZIPOutputStream(new FileOutputStream(file)))) {
+				object.writeObject(old);
+			}
+		} catch (Exception exception) {
+			// the partial segment is deleted and the transactions are given back, so
+			// nothing is lost
+			file.delete();
+			member.restoreTransactions(old);
+			throw exception;
+		}
+		segmentCounter++;
+		segments.computeIfAbsent(member.getId(), id -> new ArrayList<Segment>())
+				.add(new Segment(fileName, fromMillis, toMillis));
+		return old.size();
+	}
+
+	/**
+	 * Gets archived transactions of a member for a specific time period. Only the
+	 * segments overlapping the time period are read from disk.
+	 *
+	 * @param memberId - ID of the member
+	 * @param fromDate - beginning of the time period
+	 * @param toDate   - end of the time period
+	 * @return list of the archived transactions made in the time period (empty if
+	 *         the time period doesn't reach any segment)
+	 */
+	@SuppressWarnings("unchecked")
+	public ArrayList<Transaction> getTransactions(String memberId, Calendar fromDate, Calendar toDate) {
+		ArrayList<Transaction> output = new ArrayList<Transaction>();
+		ArrayList<Segment> memberSegments = segments.get(memberId);
+		if (memberSegments == null) {
+			return output;
+		}
+		long fromMillis = startOfDay(fromDate);
+		long toMillis = startOfDay(toDate) + 24L * 60 * 60 * 1000;
+		for (Segment segment : memberSegments) {
+			if (segment.toMillis < fromMillis || segment.fromMillis >= toMillis) {
+				continue;
+			}
+			try (ObjectInputStream object = new ObjectInputStream(
+					new GZIPInputStream(new FileInputStream(new File(directory, segment.fileName))))) {
+				for (Iterator<Transaction> iterator = ((ArrayList<Transaction>) object.readObject())
+						.iterator(); iterator.hasNext();) {
+					Transaction transaction = iterator.next();
+					if (transaction.isBetweenDates(fromDate, toDate)) {
+						output.add(transaction);
+					}
+				}
+			} catch (Exception exception) {
+				// an unreadable segment is skipped; the rest of the history is still returned
+			}
+		}
+		return output;
+	}
+
+	/**
+	 * Removes all archived transactions of a member (e.g. a member removed from
+	 * the store). Their segment files stay on disk until deleteRemoved is called
+	 * after the store is saved, since the last backup still refers to them.
+	 *
+	 * @param memberId - ID of the member
+	 * @return number of segments removed
+	 */
+	public int remove(String memberId) {
+		ArrayList<Segment> memberSegments = segments.remove(memberId);
+		if (memberSegments == null) {
+			return 0;
+		}
+		if (removedFiles == null) {
+			removedFiles = new ArrayList<String>();
+		}
+		for (Segment segment : memberSegments) {
+			removedFiles.add(segment.fileName);
+		}
+		return memberSegments.size();
+	}
+
+	/**
+	 * Deletes the files of all segments removed so far. To be called only after
+	 * the store was saved without them.
+	 *
+	 * @return number of files deleted
+	 */
+	public int deleteRemoved() {
+		if (removedFiles == null) {
+			return 0;
+		}
+		int deleted = 0;
+		for (String fileName : removedFiles) {
+			if (new File(directory, fileName).delete()) {
+				deleted++;
+			}
+		}
+		removedFiles.clear();
+		return deleted;
+	}
+
+	/**
+	 * Gets the number of segments of a member.
+	 *
+	 * @param memberId - ID of the member
+	 * @return number of the member's segments on disk
+	 */
+	public int getSegmentCount(String memberId) {
+		ArrayList<Segment> memberSegments = segments.get(memberId);
+		return (memberSegments == null) ? 0 : memberSegments.size();
+	}
+
+	private static long startOfDay(Calendar date) {
+		Calendar day = (Calendar) date.clone();
+		day.set(Calendar.HOUR_OF_DAY, 0);
+		day.set(Calendar.MINUTE, 0);
+		day.set(Calendar.SECOND, 0);
+		day.set(Calendar.MILLISECOND, 0);
+		return day.getTimeInMillis();
+	}
+
+}
@@ -1,12 +1,39 @@
 package store.tests;
 
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Iterator;
 
+import store.entities.Item;
+import store.entities.Transaction;
+import store.facade.BestSellers;
+import store.facade.ChangeCursor;
+import store.facade.ChangeLog;
 import store.facade.GroceryStore;
 import store.facade.GroceryStore.CheckOut;
+import store.facade.HyperLogLog;
+import store.facade.LineView;
+import store.facade.LowStockListener;
+import store.facade.MemberReport;
+import store.facade.MemberView;
+import store.facade.OrderView;
+import store.facade.PriceRule;
+import store.facade.ProductQuery;
+import store.facade.ProductView;
+import store.facade.PurchaseOrderView;
 import store.facade.Request;
+import store.facade.RepricingSummary;
 import store.facade.Result;
+import store.facade.RevenueView;
+import store.facade.SalesView;
+import store.facade.ShopperCounts;
+import store.facade.TimeBuckets;
+import store.facade.TopProductView;
+import store.facade.ScanLine;
+import store.facade.StoreEvent;
 
 /**
  * Automated unit testing for grocery store program
@@ -126,6 +153,23 @@ public class AutomatedTester {
 		}
 	}
 
+	public void testOrdersByDate() {
+
+		Calendar today = Calendar.getInstance();
+		Calendar yesterday = Calendar.getInstance();
+		yesterday.add(Calendar.DATE, -1);
+		int counter = 0;
+		// all orders were placed today and fulfilled by testProcessShipment
+		for (Iterator<OrderView> iterator = groceryStore.getOrderViews(today, today, false); iterator.hasNext();) {
+			OrderView order = iterator.next();
+			assert order.getOrderNumber().equalsIgnoreCase(orderNumbers[counter]);
+			counter++;
+		}
+		assert counter == orderCount;
+		assert !groceryStore.getOrderViews(today, today, true).hasNext();
+		assert !groceryStore.getOrderViews(yesterday, yesterday, false).hasNext();
+	}
+
 	public void testCheckOut() {
 
 		CheckOut checkOut = groceryStore.new CheckOut(checkedOutMemberId);
@@ -153,6 +197,247 @@ public class AutomatedTester {
 		}
 	}
 
+	public void testProductSales() {
+
+		Calendar today = Calendar.getInstance();
+		for (int index : checkedOutProductIndexes) {
+
+			SalesView sales = groceryStore.getProductSales(productIds[index], today, today);
+
+			assert sales.getUnits() == checkedOutQuantity;
+			assert sales.getTransactions() == 1;
+			assert Math.abs(sales.getRevenue() - checkedOutQuantity * currentPrice[index]) < 0.005;
+		}
+		assert groceryStore.getProductSales(productIds[0], today, today).getUnits() == 0;
+		// a single member bought each of the products checked out
+		assert groceryStore.getDistinctShoppers(productIds[checkedOutProductIndexes[0]], today, today) == 1;
+		assert groceryStore.getDistinctShoppers(productIds[0], today, today) == 0;
+	}
+
+	public void testShopperCounts() {
+
+		// the estimate holds on both sides of the switch from sparse to dense
+		for (int keys : new int[] { 10, 200, 300, 5000 }) {
+			HyperLogLog sketch = new HyperLogLog();
+			for (int key = 0; key < keys; key++) {
+				sketch.add("M-" + key);
+			}
+			assert Math.abs(sketch.estimate() - keys) <= keys / 10;
+		}
+		HyperLogLog union = new HyperLogLog();
+		HyperLogLog other = new HyperLogLog();
+		for (int key = 0; key < 200; key++) {
+			union.add("M-" + key);
+			other.add("M-" + (key + 200));
+		}
+		union.merge(other);
+		assert Math.abs(union.estimate() - 400) <= 40;
+
+		// old days are merged into weeks, and weeks past retention dropped
+		ShopperCounts counts = new ShopperCounts();
+		long today = TimeBuckets.day(Calendar.getInstance());
+		int[] daysAgo = { 0, 100, 1000 };
+		int[] shoppers = { 5, 10, 3 };
+		int member = 0;
+		for (int index = 0; index < daysAgo.length; index++) {
+			Calendar date = Calendar.getInstance();
+			date.add(Calendar.DATE, -daysAgo[index]);
+			for (int count = 0; count < shoppers[index]; count++) {
+				Transaction transaction = new Transaction(date.get(Calendar.MONTH) + 1, date.get(Calendar.DATE),
+						date.get(Calendar.YEAR), 12, 0);
+				transaction.setMemberId("M-" + member++);
+				transaction.addItem(new Item("Milk", "P-1", 1, 1.0));
+				counts.record(transaction);
+			}
+		}
+		assert counts.estimate("P-1", today - 1000, today) == 18;
+		assert counts.compact(today) == 3;
+		assert counts.estimate("P-1", today, today) == 5;
+		assert counts.estimate("P-1", today - 100, today - 100) == 10;
+		assert counts.estimate("P-1", today - 1000, today - 1000) == 0;
+		assert counts.estimate("P-1", today - 1000, today) == 15;
+		assert counts.compact(today) == 0;
+	}
+
+	public void testTopProducts() {
+
+		Iterator<TopProductView> iterator = groceryStore.getTopProducts(productCount, BestSellers.LAST_HOUR);
+		int counter = 0;
+		// all the products checked out sold the same quantity, no other product sold
+		for (; iterator.hasNext(); counter++) {
+
+			TopProductView product = iterator.next();
+			assert product.getUnits() == checkedOutQuantity;
+			assert product.getError() == 0;
+		}
+		assert counter == checkedOutProductIndexes.length;
+	}
+
+	public void testRevenue() {
+
+		Calendar from = Calendar.getInstance();
+		from.add(Calendar.HOUR_OF_DAY, -1);
+		Calendar to = Calendar.getInstance();
+		double revenue = 0;
+		for (int index : checkedOutProductIndexes) {
+			revenue += checkedOutQuantity * currentPrice[index];
+		}
+		for (long width : new long[] { TimeBuckets.MINUTE, TimeBuckets.HOUR, TimeBuckets.DAY }) {
+
+			Iterator<RevenueView> iterator = groceryStore.getRevenue(from, to, width);
+			// the single checkout made falls into a single bucket
+			RevenueView bucket = iterator.next();
+			assert !iterator.hasNext();
+			assert bucket.getTransactions() == 1;
+			assert bucket.getItems() == checkedOutQuantity * checkedOutProductIndexes.length;
+			assert Math.abs(bucket.getRevenue() - revenue) < 0.005;
+		}
+	}
+
+	public void testMemberReport() {
+
+		MemberReport report = groceryStore.getMemberReport(null, null);
+		double revenue = 0;
+		for (int index : checkedOutProductIndexes) {
+			revenue += checkedOutQuantity * currentPrice[index];
+		}
+
+		assert report.getMembers() == memberCount - removeMemberCount;
+		assert report.getActiveMembers() == 1;
+		assert report.getTransactions() == 1;
+		assert report.getItems() == checkedOutQuantity * checkedOutProductIndexes.length;
+		assert Math.abs(report.getRevenue() - revenue) < 0.005;
+		assert report.getTopMemberId().equalsIgnoreCase(checkedOutMemberId);
+	}
+
+	public void testMemberAggregates() {
+
+		Result result = groceryStore.getMember(checkedOutMemberId);
+		double revenue = 0;
+		for (int index : checkedOutProductIndexes) {
+			revenue += checkedOutQuantity * currentPrice[index];
+		}
+
+		assert result.getMemberVisitCount() == 1;
+		assert Math.abs(result.getMemberLifetimeSpend() - revenue) < 0.005;
+		assert result.getMemberLastVisit() != null;
+		assert groceryStore.getMemberView("M-3").getVisitCount() == 0;
+
+		// date queries adjust the dates given to them; doing so with the last visit
+		// must not change the transaction it came from
+		long visitMillis = result.getMemberLastVisit().getTimeInMillis();
+		Iterator<Result> transactions = groceryStore.getMemberTransactions(result, result.getMemberLastVisit(),
+				groceryStore.getMember(checkedOutMemberId).getMemberLastVisit());
+		Result transaction = transactions.next();
+		assert transaction.getTransactionDate().getTimeInMillis() == visitMillis;
+		assert groceryStore.getMember(checkedOutMemberId).getMemberLastVisit().getTimeInMillis() == visitMillis;
+	}
+
+	public void testPaging() {
+
+		int members = count(groceryStore.getMemberViews(0, Integer.MAX_VALUE));
+		assert members == memberCount - removeMemberCount;
+		// a short last page, a page past the end and a negative offset
+		int lastPage = count(groceryStore.getMemberViews(members - 2, 5));
+		assert lastPage == 2;
+		int pastEnd = count(groceryStore.getMemberViews(members + 1, 5));
+		assert pastEnd == 0;
+		Iterator<MemberView> page = groceryStore.getMemberViews(-3, 2);
+		MemberView first = page.next();
+		assert first.getId().equals(groceryStore.getMemberViews(0, 1).next().getId());
+		assert page.hasNext();
+		page.next();
+		assert !page.hasNext();
+		int empty = count(groceryStore.getMemberViews(0, -1));
+		assert empty == 0;
+
+		// the pages cover all products, each exactly once
+		int products = 0;
+		for (int offset = 0; offset < productCount + 3; offset += 3) {
+			Iterator<ProductView> products3 = groceryStore.getProductViews(offset, 3);
+			for (int index = offset; products3.hasNext(); index++) {
+				ProductView product = products3.next();
+				assert product.getId().equals(productIds[index]);
+				products++;
+			}
+		}
+		assert products == productCount;
+	}
+
+	public void testViews() {
+
+		Result member = groceryStore.getMember(checkedOutMemberId);
+		MemberView memberView = groceryStore.getMemberView(checkedOutMemberId);
+		assert memberView.getId().equalsIgnoreCase(member.getMemberId());
+		assert memberView.getName().equals(member.getMemberName());
+		assert memberView.getVisitCount() == member.getMemberVisitCount();
+		assert memberView.getLastVisit().equals(member.getMemberLastVisit());
+		// changing the dates of a view doesn't change the member
+		Calendar lastVisit = memberView.getLastVisit();
+		lastVisit.add(Calendar.YEAR, -1);
+		Calendar dateJoined = memberView.getDateJoined();
+		dateJoined.add(Calendar.YEAR, -1);
+		MemberView again = groceryStore.getMemberView(checkedOutMemberId);
+		assert again.getLastVisit().equals(member.getMemberLastVisit());
+		assert again.getDateJoined().equals(member.getMemberDateJoined());
+
+		ProductView productView = groceryStore.getProductView(productIds[checkedOutProductIndexes[0]]);
+		assert productView.getName().equals(productNames[checkedOutProductIndexes[0]]);
+		assert productView.getCurrentPrice() == currentPrice[checkedOutProductIndexes[0]];
+
+		// changing the date of an order view doesn't break the search by date
+		Calendar today = Calendar.getInstance();
+		int orders = 0;
+		for (Iterator<OrderView> iterator = groceryStore.getOrderViews(today, today, false); iterator.hasNext();) {
+			OrderView order = iterator.next();
+			Calendar dateOfOrder = order.getDateOfOrder();
+			dateOfOrder.add(Calendar.YEAR, 1);
+			orders++;
+		}
+		int ordersAgain = 0;
+		for (Iterator<OrderView> iterator = groceryStore.getOrderViews(today, today, false); iterator.hasNext();) {
+			OrderView order = iterator.next();
+			assert !order.getDateOfOrder().after(Calendar.getInstance());
+			ordersAgain++;
+		}
+		assert orders > 0;
+		assert ordersAgain == orders;
+	}
+
+	public void testReceipts() {
+
+		StringBuilder output = new StringBuilder();
+		int written = 0;
+		int unknown = 0;
+		try {
+			written = groceryStore.writeMemberReceipts(checkedOutMemberId, Calendar.getInstance(),
+					Calendar.getInstance(), output);
+			unknown = groceryStore.writeMemberReceipts("M-99", Calendar.getInstance(), Calendar.getInstance(),
+					output);
+		} catch (IOException exception) {
+			assert false;
+		}
+		assert written == 1;
+		assert unknown == -1;
+		String receipt = output.toString();
+		for (int index : checkedOutProductIndexes) {
+			// the lines are the same as formatted by String.format
+			String name = productNames[index].length() > 18 ? productNames[index].substring(0, 18)
+					: productNames[index];
+			assert receipt.contains(String.format("%-18s", name) + "  " + String.format("%3s", checkedOutQuantity)
+					+ "x  (" + String.format("$%6.2f", currentPrice[index]) + "/unit):  "
+					+ String.format("$%8.2f", checkedOutQuantity * currentPrice[index]));
+		}
+		assert receipt.startsWith("Transaction made on ");
+		assert receipt.endsWith("\n");
+
+		// amounts are rounded half up, as by String.format
+		Item item = new Item(productNames[0], productIds[0], 1, 1.005);
+		assert item.toString()
+				.endsWith(String.format("$%6.2f", 1.005) + "/unit):  " + String.format("$%8.2f", 1.005));
+		assert item.toString().endsWith("$  1.01/unit):  $    1.01");
+	}
+
 	public void testChangePrice() {
 
 		double dollar = 1.00;
@@ -161,6 +446,7 @@ public class AutomatedTester {
 			// getting id and new price
 			Request.instance().setProductId(productIds[index]);
 			Request.instance().setProductCurrentPrice(currentPrice[index] + dollar);
+			int version = groceryStore.getProductView(productIds[index]).getPriceVersion();
 
 			// changing the price and returning product info
 			Result result = groceryStore.changePrice(Request.instance());
@@ -168,8 +454,210 @@ public class AutomatedTester {
 			assert result.getResultCode() == Result.ACTION_SUCCESSFUL;
 			assert result.getProductId().equalsIgnoreCase(productIds[index]);
 			assert result.getProductCurrentPrice() == currentPrice[index] + dollar;
+			// every change creates the next price version
+			ProductView product = groceryStore.getProductView(productIds[index]);
+			assert product.getPriceVersion() == version + 1;
+			assert product.getPriceEffectiveMillis() > 0;
+		}
+
+		// the lines checked out earlier keep the version of the price they used
+		Iterator<Result> transactions = groceryStore.getMemberTransactions(
+				groceryStore.getMember(checkedOutMemberId), Calendar.getInstance(), Calendar.getInstance());
+		for (Iterator<LineView> lines = groceryStore.getTransactionLines(transactions.next()); lines.hasNext();) {
+			LineView line = lines.next();
+			assert line.getPriceVersion() == 1;
+		}
+
+	}
+
+	public void testScheduledPriceChanges() {
+
+		String productId = productIds[productCount - 1];
+		ProductView product = groceryStore.getProductView(productId);
+		Calendar later = Calendar.getInstance();
+		later.add(Calendar.HOUR_OF_DAY, 1);
+
+		int resultCode = groceryStore.schedulePriceChange("P-0", 1.00, later);
+		assert resultCode == Result.INVALID_PRODUCT_ID;
+		resultCode = groceryStore.schedulePriceChange(productId, 1.00, later);
+		assert resultCode == Result.ACTION_SUCCESSFUL;
+		assert groceryStore.getScheduledPriceChangeCount() == 1;
+		assert groceryStore.getProductView(productId).getCurrentPrice() == product.getCurrentPrice();
+		int cancelled = groceryStore.cancelScheduledPriceChanges(productId);
+		assert cancelled == 1;
+		assert groceryStore.getScheduledPriceChangeCount() == 0;
+
+		// a change already due is applied by the background timer
+		Calendar now = Calendar.getInstance();
+		resultCode = groceryStore.schedulePriceChange(productId, product.getCurrentPrice() - 1.00, now);
+		assert resultCode == Result.ACTION_SUCCESSFUL;
+		for (int wait = 0; wait < 100 && groceryStore.getScheduledPriceChangeCount() > 0; wait++) {
+			try {
+				Thread.sleep(20);
+			} catch (InterruptedException exception) {
+				break;
+			}
+		}
+		ProductView changed = groceryStore.getProductView(productId);
+		assert groceryStore.getScheduledPriceChangeCount() == 0;
+		assert changed.getCurrentPrice() == product.getCurrentPrice() - 1.00;
+		assert changed.getPriceVersion() == product.getPriceVersion() + 1;
+		assert changed.getPriceEffectiveMillis() == now.getTimeInMillis();
+	}
+
+	public void testRepricing() {
+
+		assert PriceRule.percent(3).apply(1.00) == 1.03;
+		assert PriceRule.percent(-10).roundedTo(0.05).apply(3.79) == 3.40;
+		assert PriceRule.absolute(2.10).endingIn(99).apply(0) == 2.99;
+		assert PriceRule.absolute(2.99).endingIn(99).apply(0) == 2.99;
+
+		// 10% up on all milk products (the first five)
+		double[] oldPrices = new double[5];
+		for (int index = 0; index < oldPrices.length; index++) {
+			oldPrices[index] = groceryStore.getProductView(productIds[index]).getCurrentPrice();
+		}
+		RepricingSummary summary = groceryStore.repriceProducts(new ProductQuery().nameStartsWith("milk"),
+				PriceRule.percent(10));
+		assert summary.getSelected() == oldPrices.length;
+		assert summary.getChanged() == oldPrices.length;
+		for (int index = 0; index < oldPrices.length; index++) {
+			ProductView product = groceryStore.getProductView(productIds[index]);
+			assert product.getCurrentPrice() == PriceRule.percent(10).apply(oldPrices[index]);
+			assert summary.getMinPrice() <= product.getCurrentPrice();
+			assert summary.getMaxPrice() >= product.getCurrentPrice();
+		}
+
+		// an ID given twice is repriced once; unknown IDs are counted
+		summary = groceryStore.repriceProducts(new String[] { productIds[0], productIds[0].toLowerCase(), "P-0" },
+				PriceRule.absolute(oldPrices[0]));
+		assert summary.getSelected() == 1;
+		assert summary.getChanged() == 1;
+		assert summary.getNotFound() == 1;
+		assert groceryStore.getProductView(productIds[0]).getCurrentPrice() == oldPrices[0];
+	}
+
+	public void testScanItem() {
+
+		CheckOut checkOut = groceryStore.new CheckOut(checkedOutMemberId);
+		ScanLine line = new ScanLine();
+		// the same line buffer is reused for all the items scanned (the first products
+		// weren't checked out by testCheckOut, so they are all in stock)
+		for (int index = 0; index < checkedOutProductIndexes[0]; index++) {
+
+			int resultCode = checkOut.scanItem(productIds[index], 1, line);
+
+			assert resultCode == Result.ACTION_SUCCESSFUL;
+			assert line.getProductId().equalsIgnoreCase(productIds[index]);
+			assert line.getProductName().equalsIgnoreCase(productNames[index]);
+			assert line.getQuantity() == 1;
+			assert line.getTotalPrice() == checkOut.getTotalPrice();
+		}
+		int resultCode = checkOut.scanItem("P-0", 1, line);
+		assert resultCode == Result.INVALID_PRODUCT_ID;
+		Result result = checkOut.cancelCheckOut();
+		assert result.getResultCode() == Result.ACTION_SUCCESSFUL;
+		resultCode = checkOut.scanItem(productIds[0], 1, line);
+		assert resultCode == Result.ACTION_FAILED;
+	}
+
+	public void testAddItems() {
+
+		CheckOut checkOut = groceryStore.new CheckOut(checkedOutMemberId);
+		// the second line asks for more of P-1 than is left after the first one
+		String[] ids = { productIds[0], productIds[0], "P-0", productIds[1] };
+		int[] quantities = { 1, 100, 1, 1 };
+
+		int[] resultCodes = checkOut.addItems(ids, quantities, true);
+		assert resultCodes[0] == Result.ACTION_FAILED;
+		assert resultCodes[1] == Result.INVALID_ORDER_QUANTITY;
+		assert resultCodes[2] == Result.INVALID_PRODUCT_ID;
+		assert resultCodes[3] == Result.ACTION_FAILED;
+		assert checkOut.getTotalPrice() == 0.0;
+
+		resultCodes = checkOut.addItems(ids, quantities, false);
+		assert resultCodes[0] == Result.ACTION_SUCCESSFUL;
+		assert resultCodes[1] == Result.INVALID_ORDER_QUANTITY;
+		assert resultCodes[2] == Result.INVALID_PRODUCT_ID;
+		assert resultCodes[3] == Result.ACTION_SUCCESSFUL;
+
+		// a batch whose lines can't be matched up adds nothing
+		double totalPrice = checkOut.getTotalPrice();
+		resultCodes = checkOut.addItems(ids, new int[] { 1, 1 }, false);
+		assert resultCodes.length == ids.length;
+		for (int resultCode : resultCodes) {
+			assert resultCode == Result.ACTION_FAILED;
 		}
+		assert checkOut.getTotalPrice() == totalPrice;
+
+		Result result = checkOut.cancelCheckOut();
+		assert result.getResultCode() == Result.ACTION_SUCCESSFUL;
+	}
+
+	public void testReservations() {
+
+		int stock = groceryStore.getProductView(productIds[0]).getStockOnHand();
+		CheckOut checkOut = groceryStore.new CheckOut(checkedOutMemberId);
+		Request.instance().setProductId(productIds[0]);
+		Request.instance().setOrderQuantity(1);
+
+		Result result = checkOut.addItem(Request.instance());
+		assert result.getResultCode() == Result.ACTION_SUCCESSFUL;
+		// scanning only reserves the stock
+		assert groceryStore.getProductView(productIds[0]).getStockOnHand() == stock;
+		assert groceryStore.getAvailableQuantity(productIds[0]) == stock - 1;
+		// another checkout can't take more than is left
+		CheckOut otherCheckOut = groceryStore.new CheckOut(checkedOutMemberId);
+		Request.instance().setOrderQuantity(stock);
+		result = otherCheckOut.addItem(Request.instance());
+		assert result.getResultCode() == Result.INVALID_ORDER_QUANTITY;
+
+		result = checkOut.cancelCheckOut();
+		assert result.getResultCode() == Result.ACTION_SUCCESSFUL;
+		result = otherCheckOut.cancelCheckOut();
+		assert result.getResultCode() == Result.ACTION_SUCCESSFUL;
+		// a checkout no longer open (cancelled or expired) can't be closed
+		Iterator<Result> closed = checkOut.closeCheckOut();
+		result = closed.next();
+		assert result.getResultCode() == Result.CHECKOUT_NOT_OPEN;
+		assert !closed.hasNext();
+		assert groceryStore.getAvailableQuantity(productIds[0]) == stock;
+	}
+
+	public void testQueryProducts() {
+
+		ProductQuery[] queries = { new ProductQuery().priceBetween(1.00, 3.00).nameContains("cola"),
+				new ProductQuery().nameStartsWith("milk").notOrdered(), new ProductQuery().lowStock() };
+		String[] plans = { ProductQuery.PLAN_PRICE_INDEX, ProductQuery.PLAN_NAME_INDEX, ProductQuery.PLAN_SCAN };
+		for (int index = 0; index < queries.length; index++) {
+
+			int indexed = count(groceryStore.queryProducts(queries[index]));
+			assert queries[index].getPlan().equals(plans[index]);
+			// the same query must find the same products when scanning the catalog
+			int scanned = count(groceryStore.queryProducts(queries[index].scanOnly()));
+			assert scanned == indexed;
+			assert queries[index].getPlan().equals(ProductQuery.PLAN_SCAN);
+		}
+	}
+
+	private int count(Iterator<?> iterator) {
+		int counter = 0;
+		for (; iterator.hasNext(); iterator.next()) {
+			counter++;
+		}
+		return counter;
+	}
 
+	public void testTuneReorderLevels() {
+
+		// only the products checked out have a sales velocity
+		int tuned = groceryStore.tuneReorderLevels();
+		assert tuned == checkedOutProductIndexes.length;
+		for (int index : checkedOutProductIndexes) {
+
+			Result result = groceryStore.getProductInfo(productNames[index]).next();
+			assert result.getProductReorderLevel() > 0;
+		}
 	}
 
 	public void testAll() {
@@ -182,16 +670,317 @@ public class AutomatedTester {
 
 		testProcessShipment();
 
+		testOrdersByDate();
+
 		testCheckOut();
 
+		testProductSales();
+
+		testShopperCounts();
+
+		testTopProducts();
+
+		testRevenue();
+
+		testMemberReport();
+
+		testMemberAggregates();
+
+		testViews();
+
+		testPaging();
+
+		testReceipts();
+
 		testChangePrice();
 
+		testScheduledPriceChanges();
+
+		testRepricing();
+
+		testScanItem();
+
+		testAddItems();
+
+		testReservations();
+
+		testQueryProducts();
+
+		testTuneReorderLevels();
+
+		testPurchaseOrders();
+
+		testProcessShipments();
+
+		testLowStockEvents();
+
+		testChangeLog();
+
+		testMergedScans();
+
+		testTransactionArchive();
+
 		System.out.println("Automated testing was successful!");
 
 //		UserInterface.instance().listMembers();
 //		UserInterface.instance().listProducts();
 	}
 
+	public void testPurchaseOrders() {
+
+		groceryStore.setReorderWindow(60);
+		CheckOut checkOut = groceryStore.new CheckOut(checkedOutMemberId);
+		// the whole stock of two products is bought, so both run low
+		for (int index = 1; index <= 2; index++) {
+			assert !groceryStore.getProductView(productIds[index]).isOrdered();
+			Request.instance().setProductId(productIds[index]);
+			Request.instance().setOrderQuantity(groceryStore.getAvailableQuantity(productIds[index]));
+			Result result = checkOut.addItem(Request.instance());
+			assert result.getResultCode() == Result.ACTION_SUCCESSFUL;
+		}
+		for (Iterator<Result> iterator = checkOut.closeCheckOut(); iterator.hasNext();) {
+			// the products wait for the purchase order
+			Result reorder = iterator.next();
+			assert reorder.getOrderId().equals("");
+		}
+		assert groceryStore.getPendingReorderCount() == 2;
+		assert groceryStore.getProductView(productIds[1]).isOrdered();
+
+		PurchaseOrderView purchaseOrder = groceryStore.flushReorders();
+		assert purchaseOrder.getLineCount() == 2;
+		assert purchaseOrder.isOutstanding();
+		assert groceryStore.getPendingReorderCount() == 0;
+		PurchaseOrderView empty = groceryStore.flushReorders();
+		assert empty == null;
+
+		int resultCode = groceryStore.receivePurchaseOrder("PO-0");
+		assert resultCode == Result.INVALID_ORDER_NUMBER;
+		resultCode = groceryStore.receivePurchaseOrder(purchaseOrder.getPurchaseOrderNumber());
+		assert resultCode == Result.ACTION_SUCCESSFUL;
+		for (Iterator<OrderView> lines = purchaseOrder.getLines(); lines.hasNext();) {
+			OrderView line = lines.next();
+			ProductView product = groceryStore.getProductView(line.getProductId());
+			assert line.getPurchaseOrderNumber().equals(purchaseOrder.getPurchaseOrderNumber());
+			assert product.getStockOnHand() == line.getQuantity();
+			assert !product.isOrdered();
+		}
+		assert !groceryStore.getPurchaseOrderView(purchaseOrder.getPurchaseOrderNumber()).isOutstanding();
+		resultCode = groceryStore.receivePurchaseOrder(purchaseOrder.getPurchaseOrderNumber());
+		assert resultCode == Result.ACTION_FAILED;
+		groceryStore.setReorderWindow(0);
+	}
+
+	public void testProcessShipments() {
+
+		// the whole stock of a product is bought, so it's reordered right away
+		CheckOut checkOut = groceryStore.new CheckOut(checkedOutMemberId);
+		Request.instance().setProductId(productIds[1]);
+		Request.instance().setOrderQuantity(groceryStore.getAvailableQuantity(productIds[1]));
+		Result result = checkOut.addItem(Request.instance());
+		assert result.getResultCode() == Result.ACTION_SUCCESSFUL;
+		Result reorder = checkOut.closeCheckOut().next();
+		assert !reorder.getOrderId().equals("");
+
+		// the same order twice, an unknown one and one already processed
+		int[] resultCodes = groceryStore.processShipments(
+				new String[] { reorder.getOrderId(), reorder.getOrderId().toLowerCase(), "O-0", orderNumbers[0] });
+		assert resultCodes[0] == Result.ACTION_SUCCESSFUL;
+		assert resultCodes[1] == Result.ACTION_FAILED;
+		assert resultCodes[2] == Result.INVALID_ORDER_NUMBER;
+		assert resultCodes[3] == Result.ACTION_FAILED;
+		ProductView product = groceryStore.getProductView(productIds[1]);
+		assert product.getStockOnHand() == reorder.getOrderQuantity();
+		assert !product.isOrdered();
+	}
+
+	public void testLowStockEvents() {
+
+		ArrayList<String> events = new ArrayList<String>();
+		LowStockListener listener = product -> events.add(product.getId());
+		groceryStore.addLowStockListener(listener);
+		String productId = productIds[2];
+		ProductView product = groceryStore.getProductView(productId);
+		assert product.getStockOnHand() > product.getReorderLevel();
+
+		// the stock falls to the reorder level: one event, and the product is
+		// reordered
+		Iterator<Result> reorders = buy(productId, product.getStockOnHand() - product.getReorderLevel());
+		assert events.size() == 1 && events.get(0).equals(productId);
+		String orderId = reorders.next().getOrderId();
+		// still low, but the fall was already signalled
+		reorders = buy(productId, 1);
+		assert !reorders.hasNext();
+		assert events.size() == 1;
+		// after the delivery, the next fall below the level is signalled again
+		int[] resultCodes = groceryStore.processShipments(new String[] { orderId });
+		assert resultCodes[0] == Result.ACTION_SUCCESSFUL;
+		product = groceryStore.getProductView(productId);
+		buy(productId, product.getStockOnHand() - product.getReorderLevel() + 1);
+		assert events.size() == 2;
+		groceryStore.removeLowStockListener(listener);
+	}
+
+	public void testChangeLog() {
+
+		ChangeCursor cursor = groceryStore.getChangeLog().newCursor();
+		StoreEvent event = new StoreEvent();
+		boolean read = cursor.next(event);
+		assert !read;
+
+		buy(productIds[3], 1);
+		Request.instance().setProductId(productIds[3]);
+		Request.instance().setProductCurrentPrice(groceryStore.getProductView(productIds[3]).getCurrentPrice());
+		groceryStore.changePrice(Request.instance());
+
+		int[] types = { StoreEvent.ITEM_ADDED, StoreEvent.CHECKOUT_CLOSED, StoreEvent.PRICE_CHANGED };
+		long sequence = cursor.getPosition();
+		for (int type : types) {
+			read = cursor.next(event);
+			assert read;
+			assert event.getType() == type;
+			assert event.getSequence() == sequence++;
+		}
+		assert event.getProductId().equalsIgnoreCase(productIds[3]);
+		read = cursor.next(event);
+		assert !read;
+		assert cursor.getMissed() == 0;
+
+		// a consumer falling behind a full ring skips to the oldest event kept
+		ChangeLog log = new ChangeLog(4);
+		cursor = log.newCursor();
+		for (int count = 0; count < 10; count++) {
+			log.publish(StoreEvent.MEMBER_ENROLLED, "M-" + count, "", "", 0, 0);
+		}
+		for (int count = 6; count < 10; count++) {
+			read = cursor.next(event);
+			assert read;
+			assert event.getMemberId().equals("M-" + count);
+		}
+		read = cursor.next(event);
+		assert !read;
+		assert cursor.getMissed() == 6;
+	}
+
+	public void testMergedScans() {
+
+		Request.instance().setMemberName(names[1]);
+		Request.instance().setMemberAddress(addresses[1]);
+		Request.instance().setMemberPhoneNumber(phones[1]);
+		Request.instance().setMemberDateJoined(Calendar.getInstance());
+		Request.instance().setMemberFeePaid(feesPaid[1]);
+		Result member = groceryStore.enrollMember(Request.instance());
+		String productId = productIds[5];
+		int version = groceryStore.getProductView(productId).getPriceVersion();
+
+		// repeated scans of the same product at the same price make a single line,
+		// whatever the case of the ID scanned
+		CheckOut checkOut = groceryStore.new CheckOut(member.getMemberId());
+		ScanLine line = new ScanLine();
+		int resultCode = checkOut.scanItem(productId, 1, line);
+		assert resultCode == Result.ACTION_SUCCESSFUL;
+		resultCode = checkOut.scanItem(productId, 2, line);
+		assert resultCode == Result.ACTION_SUCCESSFUL;
+		resultCode = checkOut.scanItem(productId.toLowerCase(), 1, line);
+		assert resultCode == Result.ACTION_SUCCESSFUL;
+
+		// a scan after a price change makes a line of its own
+		Request.instance().setProductId(productId);
+		Request.instance().setProductCurrentPrice(currentPrice[5] + 1.00);
+		Result result = groceryStore.changePrice(Request.instance());
+		assert result.getResultCode() == Result.ACTION_SUCCESSFUL;
+		resultCode = checkOut.scanItem(productId, 1, line);
+		assert resultCode == Result.ACTION_SUCCESSFUL;
+		checkOut.closeCheckOut();
+
+		Iterator<Result> transactions = groceryStore.getMemberTransactions(member, Calendar.getInstance(),
+				Calendar.getInstance());
+		Result transaction = transactions.next();
+		Iterator<LineView> lines = groceryStore.getTransactionLines(transaction);
+		LineView merged = lines.next();
+		assert merged.getProductId().equalsIgnoreCase(productId);
+		assert merged.getQuantity() == 4;
+		assert merged.getPriceVersion() == version;
+		LineView repriced = lines.next();
+		assert repriced.getProductId().equalsIgnoreCase(productId);
+		assert repriced.getQuantity() == 1;
+		assert repriced.getPriceVersion() == version + 1;
+		assert !lines.hasNext();
+
+		Request.instance().setMemberId(member.getMemberId());
+		result = groceryStore.removeMember(Request.instance());
+		assert result.getResultCode() == Result.ACTION_SUCCESSFUL;
+	}
+
+	public void testTransactionArchive() {
+
+		// a new member with a single transaction
+		Request.instance().setMemberName(names[0]);
+		Request.instance().setMemberAddress(addresses[0]);
+		Request.instance().setMemberPhoneNumber(phones[0]);
+		Request.instance().setMemberDateJoined(Calendar.getInstance());
+		Request.instance().setMemberFeePaid(feesPaid[0]);
+		Result member = groceryStore.enrollMember(Request.instance());
+		CheckOut checkOut = groceryStore.new CheckOut(member.getMemberId());
+		Request.instance().setProductId(productIds[3]);
+		Request.instance().setOrderQuantity(1);
+		Result result = checkOut.addItem(Request.instance());
+		assert result.getResultCode() == Result.ACTION_SUCCESSFUL;
+		checkOut.closeCheckOut();
+
+		// files left by an earlier session that was never saved may have the new
+		// member's ID; nothing refers to them
+		String fileName = member.getMemberId() + "-";
+		FilenameFilter memberFiles = (directory, name) -> name.startsWith(fileName);
+		File[] files = new File(GroceryStore.ARCHIVE_DIRECTORY).listFiles(memberFiles);
+		int staleFiles = (files == null) ? 0 : files.length;
+
+		// with a negative retention all the member's transactions are archived
+		groceryStore.setTransactionRetentionDays(-1);
+		int archived = groceryStore.archiveOldTransactions(member.getMemberId());
+		groceryStore.setTransactionRetentionDays(GroceryStore.DEFAULT_RETENTION_DAYS);
+		assert archived > 0;
+		int segments = groceryStore.getArchivedSegmentCount(member.getMemberId());
+		assert segments == 1;
+
+		// the transaction is read back from the archive
+		Iterator<Result> transactions = groceryStore.getMemberTransactions(member, Calendar.getInstance(),
+				Calendar.getInstance());
+		assert transactions.hasNext();
+		Result transaction = transactions.next();
+		assert !transactions.hasNext();
+		Iterator<LineView> lines = groceryStore.getTransactionLines(transaction);
+		LineView line = lines.next();
+		assert line.getProductId().equalsIgnoreCase(productIds[3]);
+		assert line.getQuantity() == 1;
+
+		// removing the member removes its segments; the files are kept until the
+		// store is saved, since the last backup may still refer to them
+		Request.instance().setMemberId(member.getMemberId());
+		result = groceryStore.removeMember(Request.instance());
+		assert result.getResultCode() == Result.ACTION_SUCCESSFUL;
+		segments = groceryStore.getArchivedSegmentCount(member.getMemberId());
+		assert segments == 0;
+		files = new File(GroceryStore.ARCHIVE_DIRECTORY).listFiles(memberFiles);
+		assert files != null && files.length == staleFiles + 1;
+
+		// the member's files (and the directory, if nothing else is archived) are
+		// cleaned up
+		for (File file : files) {
+			file.delete();
+		}
+		new File(GroceryStore.ARCHIVE_DIRECTORY).delete();
+	}
+
+	// buys a quantity of a product on a new checkout and returns the reorders
+	private Iterator<Result> buy(String productId, int quantity) {
+		CheckOut checkOut = groceryStore.new CheckOut(checkedOutMemberId);
+		Request.instance().setProductId(productId);
+		Request.instance().setOrderQuantity(quantity);
+		Result result = checkOut.addItem(Request.instance());
+		assert result.getResultCode() == Result.ACTION_SUCCESSFUL;
+		return checkOut.closeCheckOut();
+	}
+
 	public static void main(String[] args) {
 
 		new AutomatedTester().testAll();
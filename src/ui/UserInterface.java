@@ -9,6 +9,9 @@ import java.util.Scanner;
 
 import store.facade.GroceryStore;
 import store.facade.GroceryStore.CheckOut;
+import store.facade.MemberView;
+import store.facade.OrderView;
+import store.facade.ProductView;
 import store.facade.Request;
 import store.facade.Result;
 import store.tests.AutomatedTester;
@@ -45,6 +48,8 @@ public class UserInterface implements Serializable {
 	private static final int SAVE_DATA = 13;
 	private static final int HELP = 14;
 	private static final int EXIT = 0;
+	// number of rows displayed at once when listing members or products
+	private static final int PAGE_SIZE = 20;
 	// action labels corresponding to the previous codes
 	private static String[] menu = new String[] { "ENROLL A NEW MEMBER", "REMOVE A MEMBER", "ADD A PRODUCT",
 			"CHECK OUT MEMBER'S ITEMS", "PROCESS SHIPMENT", "CHANGE PRODUCT PRICE", "RETRIEVE PRODUCT INFO",
@@ -397,20 +402,35 @@ public class UserInterface implements Serializable {
 			// the clerk confirms and collects physical cash OR doesn't confirm and thereby
 			// cancels the checkout
 			if (getYesOrNo("Transaction confirmed by collecting cash?")) {
-				System.out.println("Checkout successful. We thank you.");
 				// performing checkout close, which adds a transaction ( = checkout) to member's
 				// history and reorders product(s) which got low in supply, if necessary;
 				// returned is an iterator over a list of products (stored in a list of results
 				// for safety) that were reordered - if the list is empty no product had to be
 				// reordered
 				Iterator<Result> iterator = checkOut.closeCheckOut();
-				if (iterator.hasNext()) {
-					System.out.println();
-					// for loop prints the reordered products
-					for (Iterator<Result> counter = iterator; counter.hasNext();) {
-						Result result = counter.next();
-						System.out.println("Item '" + result.getProductName() + "' will be reordered. (Order quantity: "
-								+ result.getOrderQuantity() + ", order number: " + result.getOrderId() + ".)");
+				Result result = iterator.hasNext() ? iterator.next() : null;
+				if (result != null && result.getResultCode() == Result.CHECKOUT_NOT_OPEN) {
+					// the checkout was idle too long and its reservation expired; nothing was
+					// recorded
+					System.out.println("Checkout expired. Please start a new checkout.");
+				} else {
+					System.out.println("Checkout successful. We thank you.");
+					if (result != null) {
+						System.out.println();
+						// loop prints the reordered products
+						do {
+							if (result.getOrderId().equals("")) {
+								// the product waits for the next purchase order
+								System.out.println("Item '" + result.getProductName()
+										+ "' will be reordered on the next purchase order. (Order quantity: "
+										+ result.getOrderQuantity() + ".)");
+							} else {
+								System.out.println("Item '" + result.getProductName()
+										+ "' will be reordered. (Order quantity: " + result.getOrderQuantity()
+										+ ", order number: " + result.getOrderId() + ".)");
+							}
+							result = iterator.hasNext() ? iterator.next() : null;
+						} while (result != null);
 					}
 				}
 			} else {
@@ -490,18 +510,18 @@ public class UserInterface implements Serializable {
 	 */
 	public void getProductInfo() {
 		String name = getString("Enter product's name: ");
-		Iterator<Result> iterator = groceryStore.getProductInfo(name);
-		Result result;
+		Iterator<ProductView> iterator = groceryStore.getProductViews(name);
+		ProductView product;
 
 		if (!iterator.hasNext()) {
 			System.out.println("Error: product does not exist");
 		} else {
 			while (iterator.hasNext()) {
-				// print info for each result object
-				result = iterator.next();
+				// print info for each product view
+				product = iterator.next();
 				System.out.printf("Product: %s, ID: %s, Price: %.2f, Stock in hand: %d, reorder level: %d\n",
-						result.getProductName(), result.getProductId(), result.getProductCurrentPrice(),
-						result.getProductStockOnHand(), result.getProductReorderLevel());
+						product.getName(), product.getId(), product.getCurrentPrice(),
+						product.getStockOnHand(), product.getReorderLevel());
 			}
 		}
 	}
@@ -513,17 +533,18 @@ public class UserInterface implements Serializable {
 	public void getMemberInfo() {
 
 		String name = getString("Enter Member's name: ");
-		Iterator<Result> iterator = groceryStore.getMemberInfo(name);
-		Result result;
+		Iterator<MemberView> iterator = groceryStore.getMemberViews(name);
+		MemberView member;
 
 		if (!iterator.hasNext()) {
 			System.out.println("Error: Member does not exist");
 		} else {
 			while (iterator.hasNext()) {
-				// print info for each result object
-				result = iterator.next();
-				System.out.printf("Member: %s, Address: %s, Fee paid: %.2f, ID: %s\n", result.getMemberName(),
-						result.getMemberAddress(), result.getMemberFeePaid(), result.getMemberId());
+				// print info for each member view
+				member = iterator.next();
+				System.out.printf("Member: %s, Address: %s, Fee paid: %.2f, ID: %s, Visits: %d, Lifetime spend: %.2f\n",
+						member.getName(), member.getAddress(), member.getFeePaid(), member.getId(),
+						member.getVisitCount(), member.getLifetimeSpend());
 			}
 		}
 	}
@@ -700,21 +721,21 @@ public class UserInterface implements Serializable {
 	 * for all outstanding orders
 	 */
 	public void listOutstandingOrders() {
-		Iterator<Result> iterator = groceryStore.getAllOrders();
+		Iterator<OrderView> iterator = groceryStore.getOrderViews();
 		if (iterator.hasNext()) {
 			System.out.println("\n" + String.format("%-10s", "Order") + "  " + String.format("%-28s", "Product Name")
 					+ "  " + String.format("%-17s", "Product ID") + "  " + String.format("%-35s", "Date of Order")
 					+ "  " + String.format("%-13s", "Quantity"));
 			System.out.println("-".repeat(106));
-			for (Iterator<Result> counter = iterator; counter.hasNext();) {
-				Result result = counter.next();
+			for (Iterator<OrderView> counter = iterator; counter.hasNext();) {
+				OrderView order = counter.next();
 				// If the order's isOutstanding is True, print its details
-				if (result.getIsOutstanding()) {
-					System.out.println(String.format("%-10s", result.getOrderId()) + "  "
-							+ String.format("%-25s", fittedString(result.getProductName(), 25)) + "  "
-							+ String.format("%13s", result.getProductId()) + "  "
-							+ String.format("%35s", result.getDateOfOrder().getTime().toString()) + "  "
-							+ String.format("%13s", result.getOrderQuantity()));
+				if (order.isOutstanding()) {
+					System.out.println(String.format("%-10s", order.getOrderNumber()) + "  "
+							+ String.format("%-25s", fittedString(order.getProductName(), 25)) + "  "
+							+ String.format("%13s", order.getProductId()) + "  "
+							+ String.format("%35s", order.getDateOfOrder().getTime().toString()) + "  "
+							+ String.format("%13s", order.getQuantity()));
 				}
 			}
 		} else {
@@ -727,9 +748,9 @@ public class UserInterface implements Serializable {
 	 * Displays all members in the database.
 	 */
 	public void listMembers() {
-		// returns an iterator on the list of members (safely stored in a list of
-		// results (data transfer logic)) in order to display it
-		Iterator<Result> iterator = groceryStore.getAllMembers();
+		// returns an iterator on the first page of members (safely mapped to read-only
+		// member views) in order to display it
+		Iterator<MemberView> iterator = groceryStore.getMemberViews(0, PAGE_SIZE);
 		// next if clause is carried out if the database of members is non-empty
 		if (iterator.hasNext()) {
 			// displays the header of the table
@@ -737,14 +758,24 @@ public class UserInterface implements Serializable {
 					+ String.format("%-28s", "Address") + "  " + String.format("%-11s", "Ph. number") + "  "
 					+ String.format("%-10s", "Joined"));
 			System.out.println("-".repeat(89));
-			// for loop prints all members
-			for (Iterator<Result> counter = iterator; counter.hasNext();) {
-				Result result = counter.next();
-				System.out.println(String.format("%-9s", result.getMemberId()) + "  "
-						+ String.format("%-23s", fittedString(result.getMemberName(), 23)) + "  "
-						+ String.format("%-28s", fittedString(result.getMemberAddress(), 28)) + "  "
-						+ String.format("%-11s", result.getMemberPhoneNumber()) + "  "
-						+ String.format("%1$tm/%1$td/%1$tY", result.getMemberDateJoined()));
+			int offset = 0;
+			// while loop prints the members page by page, so only a single page of
+			// members is held in memory at a time
+			while (iterator.hasNext()) {
+				int printed = 0;
+				for (Iterator<MemberView> counter = iterator; counter.hasNext(); printed++) {
+					MemberView member = counter.next();
+					System.out.println(String.format("%-9s", member.getId()) + "  "
+							+ String.format("%-23s", fittedString(member.getName(), 23)) + "  "
+							+ String.format("%-28s", fittedString(member.getAddress(), 28)) + "  "
+							+ String.format("%-11s", member.getPhoneNumber()) + "  "
+							+ String.format("%1$tm/%1$td/%1$tY", member.getDateJoined()));
+				}
+				offset += printed;
+				iterator = groceryStore.getMemberViews(offset, PAGE_SIZE);
+				if (printed < PAGE_SIZE || !iterator.hasNext() || !getYesOrNo("Show more members?")) {
+					break;
+				}
 			}
 		} else {
 			// in case the member database is empty
@@ -756,21 +787,30 @@ public class UserInterface implements Serializable {
 	 * Lists all products in the database.
 	 */
 	public void listProducts() {
-		Iterator<Result> iterator = groceryStore.getAllProducts();
+		Iterator<ProductView> iterator = groceryStore.getProductViews(0, PAGE_SIZE);
 		if (iterator.hasNext()) {
 			// displays the header of the table
 			System.out.println("\n" + String.format("%-10s", "Product ID") + "  "
 					+ String.format("%-25s", "Product Name") + "  " + String.format("%-13s", "Current Price") + "  "
 					+ String.format("%-13s", "Stock On Hand") + "  " + String.format("%-13s", "Reorder Level"));
 			System.out.println("-".repeat(82));
-			// for loop prints all products
-			for (Iterator<Result> counter = iterator; counter.hasNext();) {
-				Result result = counter.next();
-				System.out.println(String.format("%-10s", result.getProductId()) + "  "
-						+ String.format("%-25s", fittedString(result.getProductName(), 25)) + "  "
-						+ String.format("%13.2f", result.getProductCurrentPrice()) + "  "
-						+ String.format("%13s", result.getProductStockOnHand()) + "  "
-						+ String.format("%13s", result.getProductReorderLevel()));
+			int offset = 0;
+			// while loop prints the products page by page
+			while (iterator.hasNext()) {
+				int printed = 0;
+				for (Iterator<ProductView> counter = iterator; counter.hasNext(); printed++) {
+					ProductView product = counter.next();
+					System.out.println(String.format("%-10s", product.getId()) + "  "
+							+ String.format("%-25s", fittedString(product.getName(), 25)) + "  "
+							+ String.format("%13.2f", product.getCurrentPrice()) + "  "
+							+ String.format("%13s", product.getStockOnHand()) + "  "
+							+ String.format("%13s", product.getReorderLevel()));
+				}
+				offset += printed;
+				iterator = groceryStore.getProductViews(offset, PAGE_SIZE);
+				if (printed < PAGE_SIZE || !iterator.hasNext() || !getYesOrNo("Show more products?")) {
+					break;
+				}
 			}
 		} else {
 			// in case the product database is empty